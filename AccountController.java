@@ -2,12 +2,18 @@ package com.example.bank.controller;
 
 import com.example.bankingapi.dto.request.DepositRequest;
 import com.example.bankingapi.dto.response.AccountResponse;
+import com.example.bankingapi.dto.response.BalanceAtResponse;
+import com.example.bankingapi.dto.response.MonthlyStatsResponse;
 import com.example.bankingapi.service.AccountService;
+import com.example.bankingapi.service.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -15,6 +21,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AccountController {
     private final AccountService accountService;
+    private final IdempotencyService idempotencyService;
     
     @PostMapping
     public ResponseEntity<AccountResponse> createAccount(@RequestParam String accountName) {
@@ -31,8 +38,33 @@ public class AccountController {
         return ResponseEntity.ok(accountService.getAccount(accountNumber));
     }
     
+    @GetMapping("/{accountNumber}/balance")
+    public ResponseEntity<BalanceAtResponse> getBalanceAt(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at
+    ) {
+        return ResponseEntity.ok(accountService.getBalanceAt(accountNumber, at != null ? at : LocalDateTime.now()));
+    }
+    
+    // Monthly inflow/outflow per transaction type; defaults to the last 12 months
+    @GetMapping("/{accountNumber}/analytics/monthly")
+    public ResponseEntity<List<MonthlyStatsResponse>> getMonthlyStats(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to
+    ) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(11);
+        return ResponseEntity.ok(accountService.getMonthlyStats(accountNumber, start, end));
+    }
+    
     @PostMapping("/deposit")
-    public ResponseEntity<AccountResponse> deposit(@Valid @RequestBody DepositRequest request) {
-        return ResponseEntity.ok(accountService.deposit(request));
+    public ResponseEntity<AccountResponse> deposit(
+            @Valid @RequestBody DepositRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, "deposit", request,
+                () -> accountService.deposit(request),
+                () -> accountService.getPostedAccount(request.getAccountNumber())));
     }
 }
\ No newline at end of file
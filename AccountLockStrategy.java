@@ -0,0 +1,18 @@
+package com.example.bank.service.lock;
+
+import com.example.bankingapi.model.Account;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Serializes concurrent balance updates on the same accounts, selected with bank.transfer.lock-strategy.
+// execute() wraps a whole unit of work that opens its own transaction; lockAccounts() is called
+// inside that transaction to load the accounts it touches.
+public interface AccountLockStrategy {
+    
+    <T> T execute(Collection<String> accountNumbers, Supplier<T> work);
+    
+    // Loads the given accounts in account-number order; missing accounts are absent from the map
+    Map<String, Account> lockAccounts(Collection<String> accountNumbers);
+}
\ No newline at end of file
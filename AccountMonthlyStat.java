@@ -0,0 +1,48 @@
+package com.example.bank.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Running totals of one account's entries of one type in one calendar month.
+// Postings only insert AccountMonthlyStatDelta rows; AccountMonthlyStatsFolder adds them here.
+// account_id is a plain column: rows are created by the folder while a posting transaction may hold the
+// account row FOR UPDATE, which a foreign-key check would wait on.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "account_monthly_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_monthly_stats", columnNames = {"account_id", "period_start", "type"})
+})
+public class AccountMonthlyStat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    
+    // First day of the month
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+    
+    @Column(nullable = false)
+    private BigDecimal inflow;
+    
+    @Column(nullable = false)
+    private BigDecimal outflow;
+    
+    @Column(nullable = false)
+    private long entryCount;
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.bank.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One posting's contribution to an account_monthly_stats row, inserted with the posting and folded into the
+// row by AccountMonthlyStatsFolder. Insert-only, so postings never wait on each other's statistics.
+// account_id is a plain column for the same reason as in AccountMonthlyStat.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "account_monthly_stat_deltas", indexes = {
+        @Index(name = "idx_account_monthly_stat_deltas_account", columnList = "account_id, period_start")
+})
+public class AccountMonthlyStatDelta {
+    // Sequence ids so the insert is batched with the posting's entries
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_monthly_stat_delta_seq")
+    @SequenceGenerator(name = "account_monthly_stat_delta_seq", sequenceName = "account_monthly_stat_delta_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    
+    // First day of the month
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+    
+    @Column(nullable = false)
+    private BigDecimal inflow;
+    
+    @Column(nullable = false)
+    private BigDecimal outflow;
+    
+    @Column(nullable = false)
+    private long entryCount;
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.bank.repository;
+
+import com.example.bankingapi.model.AccountMonthlyStatDelta;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountMonthlyStatDeltaRepository extends JpaRepository<AccountMonthlyStatDelta, Long> {
+    
+    @Query("SELECT d FROM AccountMonthlyStatDelta d ORDER BY d.id")
+    List<AccountMonthlyStatDelta> findBatch(Pageable pageable);
+    
+    // Served by idx_account_monthly_stat_deltas_account; only what hasn't been folded yet, so a handful of rows
+    List<AccountMonthlyStatDelta> findByAccountIdAndPeriodStartBetween(Long accountId, LocalDate from, LocalDate to);
+    
+    @Modifying
+    @Query("DELETE FROM AccountMonthlyStatDelta d WHERE d.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM AccountMonthlyStatDelta d WHERE d.accountId BETWEEN :fromId AND :toId")
+    int deleteByAccountIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
\ No newline at end of file
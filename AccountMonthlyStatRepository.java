@@ -0,0 +1,37 @@
+package com.example.bank.repository;
+
+import com.example.bankingapi.model.AccountMonthlyStat;
+import com.example.bankingapi.model.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountMonthlyStatRepository extends JpaRepository<AccountMonthlyStat, Long> {
+    
+    // Served by uk_account_monthly_stats
+    List<AccountMonthlyStat> findByAccountIdAndPeriodStartBetweenOrderByPeriodStartAsc(Long accountId, LocalDate from, LocalDate to);
+    
+    @Modifying
+    @Query("UPDATE AccountMonthlyStat s SET s.inflow = s.inflow + :inflow, s.outflow = s.outflow + :outflow, " +
+            "s.entryCount = s.entryCount + :entryCount " +
+            "WHERE s.accountId = :accountId AND s.periodStart = :periodStart AND s.type = :type")
+    int addToMonth(
+            @Param("accountId") Long accountId,
+            @Param("periodStart") LocalDate periodStart,
+            @Param("type") TransactionType type,
+            @Param("inflow") BigDecimal inflow,
+            @Param("outflow") BigDecimal outflow,
+            @Param("entryCount") long entryCount
+    );
+    
+    @Modifying
+    @Query("DELETE FROM AccountMonthlyStat s WHERE s.accountId BETWEEN :fromId AND :toId")
+    int deleteByAccountIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.dto.response.StatsBackfillResponse;
+import com.example.bankingapi.model.AccountMonthlyStat;
+import com.example.bankingapi.repository.AccountMonthlyStatDeltaRepository;
+import com.example.bankingapi.repository.AccountMonthlyStatRepository;
+import com.example.bankingapi.repository.AccountRepository;
+import com.example.bankingapi.repository.MonthlyTotal;
+import com.example.bankingapi.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Rebuilds account_monthly_stats from the transactions table, split into account-id ranges that are rebuilt
+// in parallel, one transaction per range: delete the range's rows and pending deltas, aggregate, insert.
+// Safe while postings continue: each range runs in one REPEATABLE READ snapshot, so a posting either committed
+// before it (its entries are aggregated and its delta deleted) or after it (its delta is left for the folder).
+// A range that races the folder fails with a serialization or unique-key error and is retried.
+@Component
+public class AccountMonthlyStatsBackfill {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountMonthlyStatRepository statRepository;
+    private final AccountMonthlyStatDeltaRepository deltaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int threads;
+    private final long accountsPerChunk;
+    private final int maxAttempts;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    public AccountMonthlyStatsBackfill(
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            AccountMonthlyStatRepository statRepository,
+            AccountMonthlyStatDeltaRepository deltaRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${bank.analytics.backfill.threads:4}") int threads,
+            @Value("${bank.analytics.backfill.accounts-per-chunk:1000}") long accountsPerChunk,
+            @Value("${bank.analytics.backfill.max-attempts:3}") int maxAttempts
+    ) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.statRepository = statRepository;
+        this.deltaRepository = deltaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.threads = threads;
+        this.accountsPerChunk = accountsPerChunk;
+        this.maxAttempts = maxAttempts;
+    }
+    
+    public StatsBackfillResponse rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("A statistics backfill is already running");
+        }
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long maxId = accountRepository.findMaxId().orElse(0L);
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long fromId = 1; fromId <= maxId; fromId += accountsPerChunk) {
+                long from = fromId;
+                long to = Math.min(fromId + accountsPerChunk - 1, maxId);
+                chunks.add(executor.submit(() -> rebuildWithRetry(from, to)));
+            }
+            
+            long rows = 0;
+            for (Future<Integer> chunk : chunks) {
+                rows += chunk.get();
+            }
+            return StatsBackfillResponse.builder()
+                    .chunks(chunks.size())
+                    .rowsWritten(rows)
+                    .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .build();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while rebuilding statistics");
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("Statistics backfill failed: " + ex.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+    
+    private int rebuildWithRetry(long fromId, long toId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> rebuildRange(fromId, toId));
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+            }
+        }
+    }
+    
+    private int rebuildRange(long fromId, long toId) {
+        statRepository.deleteByAccountIdBetween(fromId, toId);
+        deltaRepository.deleteByAccountIdBetween(fromId, toId);
+        
+        List<AccountMonthlyStat> rows = new ArrayList<>();
+        for (MonthlyTotal total : transactionRepository.sumByAccountMonthAndType(fromId, toId)) {
+            rows.add(AccountMonthlyStat.builder()
+                    .accountId(total.getAccountId())
+                    .periodStart(LocalDate.of(total.getPeriodYear(), total.getPeriodMonth(), 1))
+                    .type(total.getType())
+                    .inflow(total.getInflow())
+                    .outflow(total.getOutflow())
+                    .entryCount(total.getEntryCount())
+                    .build());
+        }
+        statRepository.saveAll(rows);
+        statRepository.flush();
+        return rows.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.model.AccountMonthlyStat;
+import com.example.bankingapi.model.AccountMonthlyStatDelta;
+import com.example.bankingapi.model.TransactionType;
+import com.example.bankingapi.repository.AccountMonthlyStatDeltaRepository;
+import com.example.bankingapi.repository.AccountMonthlyStatRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Folds pending account_monthly_stat_deltas into account_monthly_stats, one batch per transaction.
+// A batch's deltas are deleted in the same transaction they are added in; if another instance folded any of them
+// first the delete comes up short and the batch rolls back, so every delta is counted exactly once.
+@Component
+public class AccountMonthlyStatsFolder {
+    // Rows are updated in key order so two folders touching the same rows can't deadlock
+    private static final Comparator<StatKey> KEY_ORDER = Comparator.comparing(StatKey::accountId)
+            .thenComparing(StatKey::periodStart)
+            .thenComparing(StatKey::type);
+    
+    private final AccountMonthlyStatDeltaRepository deltaRepository;
+    private final AccountMonthlyStatRepository statRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    
+    public AccountMonthlyStatsFolder(
+            AccountMonthlyStatDeltaRepository deltaRepository,
+            AccountMonthlyStatRepository statRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${bank.analytics.fold-batch-size:5000}") int batchSize
+    ) {
+        this.deltaRepository = deltaRepository;
+        this.statRepository = statRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+    
+    @Scheduled(fixedDelayString = "${bank.analytics.fold-interval-millis:1000}")
+    public void foldPending() {
+        while (true) {
+            Integer folded;
+            try {
+                folded = transactionTemplate.execute(status -> foldBatch());
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException ex) {
+                // Another instance is folding the same deltas or creating the same row; the next run picks up the rest
+                return;
+            }
+            if (folded == null || folded < batchSize) {
+                return;
+            }
+        }
+    }
+    
+    private int foldBatch() {
+        List<AccountMonthlyStatDelta> deltas = deltaRepository.findBatch(PageRequest.of(0, batchSize));
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        
+        List<Long> ids = deltas.stream().map(AccountMonthlyStatDelta::getId).toList();
+        if (deltaRepository.deleteByIds(ids) != ids.size()) {
+            throw new ConcurrencyFailureException("Statistics deltas were folded concurrently");
+        }
+        
+        Map<StatKey, StatDelta> totals = new TreeMap<>(KEY_ORDER);
+        for (AccountMonthlyStatDelta delta : deltas) {
+            totals.merge(new StatKey(delta.getAccountId(), delta.getPeriodStart(), delta.getType()),
+                    new StatDelta(delta.getInflow(), delta.getOutflow(), delta.getEntryCount()), StatDelta::plus);
+        }
+        
+        totals.forEach((key, total) -> {
+            int updated = statRepository.addToMonth(key.accountId(), key.periodStart(), key.type(),
+                    total.inflow(), total.outflow(), total.entryCount());
+            if (updated == 0) {
+                statRepository.save(AccountMonthlyStat.builder()
+                        .accountId(key.accountId())
+                        .periodStart(key.periodStart())
+                        .type(key.type())
+                        .inflow(total.inflow())
+                        .outflow(total.outflow())
+                        .entryCount(total.entryCount())
+                        .build());
+            }
+        });
+        return deltas.size();
+    }
+    
+    private record StatKey(Long accountId, LocalDate periodStart, TransactionType type) {
+    }
+    
+    private record StatDelta(BigDecimal inflow, BigDecimal outflow, long entryCount) {
+        StatDelta plus(StatDelta other) {
+            return new StatDelta(inflow.add(other.inflow), outflow.add(other.outflow), entryCount + other.entryCount);
+        }
+    }
+}
\ No newline at end of file
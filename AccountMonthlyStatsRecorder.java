@@ -0,0 +1,52 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.model.AccountMonthlyStatDelta;
+import com.example.bankingapi.model.Transaction;
+import com.example.bankingapi.model.TransactionType;
+import com.example.bankingapi.repository.AccountMonthlyStatDeltaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Records posted entries for account_monthly_stats inside the posting transaction, as insert-only delta rows
+// that commit or roll back with the entries. No statistics row is locked here, so hot-account and append-only
+// credits stay as contention-free as the postings themselves; AccountMonthlyStatsFolder adds the deltas to the
+// rows later, and reads add whatever is still pending.
+// Call after the entries are persisted (their timestamps are set on persist).
+@Component
+@RequiredArgsConstructor
+public class AccountMonthlyStatsRecorder {
+    private final AccountMonthlyStatDeltaRepository deltaRepository;
+    
+    public void record(List<Transaction> entries) {
+        Map<StatKey, AccountMonthlyStatDelta> deltas = new LinkedHashMap<>();
+        for (Transaction entry : entries) {
+            LocalDateTime timestamp = entry.getTimestamp() != null ? entry.getTimestamp() : LocalDateTime.now();
+            StatKey key = new StatKey(entry.getAccount().getId(), timestamp.toLocalDate().withDayOfMonth(1), entry.getType());
+            AccountMonthlyStatDelta delta = deltas.computeIfAbsent(key, k -> AccountMonthlyStatDelta.builder()
+                    .accountId(k.accountId())
+                    .periodStart(k.periodStart())
+                    .type(k.type())
+                    .inflow(BigDecimal.ZERO)
+                    .outflow(BigDecimal.ZERO)
+                    .build());
+            if (entry.getAmount().signum() >= 0) {
+                delta.setInflow(delta.getInflow().add(entry.getAmount()));
+            } else {
+                delta.setOutflow(delta.getOutflow().add(entry.getAmount().negate()));
+            }
+            delta.setEntryCount(delta.getEntryCount() + 1);
+        }
+        deltaRepository.saveAll(new ArrayList<>(deltas.values()));
+    }
+    
+    private record StatKey(Long accountId, LocalDate periodStart, TransactionType type) {
+    }
+}
\ No newline at end of file
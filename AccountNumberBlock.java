@@ -0,0 +1,36 @@
+package com.example.bank.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One row per range of account numbers handed to an application instance
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "account_number_blocks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_number_blocks_start_serial", columnNames = {"start_serial"})
+})
+public class AccountNumberBlock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_number_block_seq")
+    @SequenceGenerator(name = "account_number_block_seq", sequenceName = "account_number_block_seq", allocationSize = 1)
+    private Long id;
+    
+    // First serial of the block; the block covers [startSerial, startSerial + blockSize).
+    // Null for blocks reserved before it was stored, which started at id * blockSize.
+    @Column(name = "start_serial")
+    private Long startSerial;
+    
+    @Column(nullable = false)
+    private int blockSize;
+    
+    @Column(nullable = false)
+    private LocalDateTime reservedAt;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.bank.repository;
+
+import com.example.bankingapi.model.AccountNumberBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccountNumberBlockRepository extends JpaRepository<AccountNumberBlock, Long> {
+    
+    // First serial after every reserved block, whatever block size each was reserved with
+    @Query("SELECT MAX(COALESCE(b.startSerial, b.id * b.blockSize) + b.blockSize) FROM AccountNumberBlock b")
+    Optional<Long> findNextFreeSerial();
+}
\ No newline at end of file
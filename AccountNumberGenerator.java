@@ -0,0 +1,139 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.model.AccountNumberBlock;
+import com.example.bankingapi.repository.AccountNumberBlockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out 10-digit account numbers: 9 digits from a keyed permutation of a serial number, plus a Luhn check digit.
+// Serials come from blocks reserved in account_number_blocks, each starting where the highest reserved block ends,
+// so numbers are unique across instances and block-size changes, and only one DB round trip is needed per block.
+// Two instances reserving at once collide on the unique start serial and the loser reserves again.
+@Component
+public class AccountNumberGenerator {
+    private static final long SERIAL_SPACE = 1_000_000_000L;
+    private static final int MAX_RESERVE_ATTEMPTS = 5;
+    private static final int HALF_BITS = 15;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+    
+    private final AccountNumberBlockRepository blockRepository;
+    private final TransactionTemplate blockTransactionTemplate;
+    private final int blockSize;
+    private final long permutationKey;
+    
+    // A lock rather than synchronized: reserveBlock() does DB I/O, which would pin a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // Guarded by lock
+    private long nextSerial;
+    private long blockEnd;
+    
+    public AccountNumberGenerator(
+            AccountNumberBlockRepository blockRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${bank.account-number.block-size:100}") int blockSize,
+            @Value("${bank.account-number.permutation-key:7046029254386353131}") long permutationKey
+    ) {
+        this.blockRepository = blockRepository;
+        // A reserved block stays consumed even if the account creation that triggered it rolls back
+        this.blockTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.blockTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        this.permutationKey = permutationKey;
+    }
+    
+    public String next() {
+        long serial;
+        lock.lock();
+        try {
+            if (nextSerial >= blockEnd) {
+                reserveBlock();
+            }
+            serial = nextSerial++;
+        } finally {
+            lock.unlock();
+        }
+        
+        String digits = String.format("%09d", permute(serial));
+        return digits + luhnCheckDigit(digits);
+    }
+    
+    private void reserveBlock() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                AccountNumberBlock block = blockTransactionTemplate.execute(status -> {
+                    long start = blockRepository.findNextFreeSerial().orElse(0L);
+                    if (start + blockSize > SERIAL_SPACE) {
+                        throw new IllegalStateException("Account number space exhausted");
+                    }
+                    return blockRepository.saveAndFlush(AccountNumberBlock.builder()
+                            .startSerial(start)
+                            .blockSize(blockSize)
+                            .reservedAt(LocalDateTime.now())
+                            .build());
+                });
+                nextSerial = block.getStartSerial();
+                blockEnd = block.getStartSerial() + block.getBlockSize();
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance reserved the same range first
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+    
+    // Bijection on [0, 10^9): a Feistel network over 30 bits, re-applied until the value lands back in range
+    private long permute(long serial) {
+        long value = serial;
+        do {
+            value = feistel(value);
+        } while (value >= SERIAL_SPACE);
+        return value;
+    }
+    
+    private long feistel(long value) {
+        int left = (int) (value >>> HALF_BITS) & HALF_MASK;
+        int right = (int) value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            int mixed = left ^ roundFunction(right, round);
+            left = right;
+            right = mixed;
+        }
+        return ((long) left << HALF_BITS) | right;
+    }
+    
+    private int roundFunction(int half, int round) {
+        long h = half * 0x9E3779B97F4A7C15L ^ (permutationKey + round * 0xBF58476D1CE4E5B9L);
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        h ^= h >>> 29;
+        return (int) h & HALF_MASK;
+    }
+    
+    private static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
\ No newline at end of file
@@ -2,9 +2,16 @@ package com.example.bank.repository;
 
 import com.example.bankingapi.model.Account;
 import com.example.bankingapi.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +19,61 @@ import java.util.Optional;
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
     List<Account> findByUser(User user);
+    List<Account> findByUserId(Long userId);
     boolean existsByAccountNumber(String accountNumber);
+    
+    @Query("SELECT MAX(a.id) FROM Account a")
+    Optional<Long> findMaxId();
+    
+    String ACCOUNT_VIEW = "SELECT a.id AS id, a.accountNumber AS accountNumber, a.accountName AS accountName, " +
+            "a.createdAt AS createdAt, a.user.id AS ownerId, ";
+    
+    // Account.balance plus unfolded ledger entries and hot-account slots; equal to a.balance when neither is in use
+    String DERIVED_BALANCE = "a.balance " +
+            "+ COALESCE((SELECT SUM(t.amount) FROM Transaction t WHERE t.account = a AND t.folded = false), 0) " +
+            "+ COALESCE((SELECT SUM(s.balance) FROM AccountBalanceSlot s WHERE s.account = a), 0)";
+    
+    @Query(ACCOUNT_VIEW + "a.balance AS balance FROM Account a WHERE a.user.id = :userId ORDER BY a.id")
+    List<AccountView> findViewsByUserId(@Param("userId") Long userId);
+    
+    @Query(ACCOUNT_VIEW + "a.balance AS balance FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<AccountView> findViewByAccountNumber(@Param("accountNumber") String accountNumber);
+    
+    @Query(ACCOUNT_VIEW + DERIVED_BALANCE + " AS balance FROM Account a WHERE a.user.id = :userId ORDER BY a.id")
+    List<AccountView> findDerivedViewsByUserId(@Param("userId") Long userId);
+    
+    @Query(ACCOUNT_VIEW + DERIVED_BALANCE + " AS balance FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<AccountView> findDerivedViewByAccountNumber(@Param("accountNumber") String accountNumber);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Account> findByAccountNumberForUpdate(@Param("accountNumber") String accountNumber);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+    
+    // Snapshot plus unfolded ledger entries, read in one statement so a concurrent fold can't be seen half-done
+    @Query("SELECT a.balance + COALESCE((SELECT SUM(t.amount) FROM Transaction t " +
+            "WHERE t.account = a AND t.folded = false), 0) FROM Account a WHERE a.id = :id")
+    BigDecimal findLedgerBalance(@Param("id") Long id);
+    
+    @Query("SELECT a.id AS id, a.balance + COALESCE((SELECT SUM(t.amount) FROM Transaction t " +
+            "WHERE t.account = a AND t.folded = false), 0) AS balance FROM Account a WHERE a.id IN :ids")
+    List<LedgerBalance> findLedgerBalances(@Param("ids") Collection<Long> ids);
+    
+    // Hot accounts: the row balance plus every credit slot, in one statement for the same reason
+    @Query("SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM AccountBalanceSlot s " +
+            "WHERE s.account = a), 0) FROM Account a WHERE a.id = :id")
+    BigDecimal findSlottedBalance(@Param("id") Long id);
+    
+    // Group-commit writes: the debit only applies if the balance, including hot-account slots, covers it
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.version = a.version + 1 WHERE a.id = :id " +
+            "AND a.balance + COALESCE((SELECT SUM(s.balance) FROM AccountBalanceSlot s WHERE s.account = a), 0) + :amount >= 0")
+    int applyDebit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+    
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.version = a.version + 1 WHERE a.id = :id")
+    int applyCredit(@Param("id") Long id, @Param("amount") BigDecimal amount);
 }
\ No newline at end of file
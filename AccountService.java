@@ -1,24 +1,41 @@
 package com.example.bank.service;
 
+import com.example.bankingapi.config.AuthenticatedUser;
 import com.example.bankingapi.dto.request.DepositRequest;
 import com.example.bankingapi.dto.response.AccountResponse;
+import com.example.bankingapi.dto.response.BalanceAtResponse;
+import com.example.bankingapi.dto.response.MonthlyStatsResponse;
 import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.AccountMonthlyStat;
+import com.example.bankingapi.model.AccountMonthlyStatDelta;
+import com.example.bankingapi.model.DailyBalance;
 import com.example.bankingapi.model.Transaction;
 import com.example.bankingapi.model.TransactionType;
-import com.example.bankingapi.model.User;
+import com.example.bankingapi.repository.AccountMonthlyStatDeltaRepository;
+import com.example.bankingapi.repository.AccountMonthlyStatRepository;
 import com.example.bankingapi.repository.AccountRepository;
+import com.example.bankingapi.repository.AccountView;
+import com.example.bankingapi.repository.DailyBalanceRepository;
 import com.example.bankingapi.repository.TransactionRepository;
 import com.example.bankingapi.repository.UserRepository;
+import com.example.bankingapi.service.AccountSnapshotCache.AccountSnapshot;
+import com.example.bankingapi.exception.PermissionDeniedException;
+import com.example.bankingapi.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,103 +44,237 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final GroupCommitJournal groupCommitJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final OperationMetrics operationMetrics;
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final AccountMonthlyStatRepository accountMonthlyStatRepository;
+    private final AccountMonthlyStatDeltaRepository accountMonthlyStatDeltaRepository;
     
+    @Transactional
     public AccountResponse createAccount(String accountName) {
-        User currentUser = getCurrentUser();
+        return operationMetrics.record("account.create", () -> insertAccount(accountName));
+    }
+    
+    private AccountResponse insertAccount(String accountName) {
+        Long currentUserId = getCurrentUserId();
         
         // Generate unique account number
-        String accountNumber = generateAccountNumber();
+        String accountNumber = accountNumberGenerator.next();
         
         Account account = Account.builder()
                 .accountNumber(accountNumber)
                 .accountName(accountName)
                 .balance(BigDecimal.ZERO)
-                .user(currentUser)
+                .user(userRepository.getReferenceById(currentUserId))
                 .createdAt(LocalDateTime.now())
                 .build();
         
         account = accountRepository.save(account);
+        accountSnapshotCache.evictOwnerAfterCommit(currentUserId);
         
         return mapToResponse(account);
     }
     
+    // Not @Transactional so cache hits never borrow a connection; the lookup on a miss runs in Spring Data's
+    // read-only repository transaction and is routed like any other read
     public List<AccountResponse> getMyAccounts() {
-        User currentUser = getCurrentUser();
-        return accountRepository.findByUser(currentUser)
+        return operationMetrics.record("account.list", this::loadMyAccounts);
+    }
+    
+    private List<AccountResponse> loadMyAccounts() {
+        Long currentUserId = getCurrentUserId();
+        List<AccountResponse> cached = accountSnapshotCache.getOwnerAccounts(currentUserId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long stamp = accountSnapshotCache.stamp();
+        List<AccountResponse> accounts = ledgerService.findAccountViews(currentUserId)
                 .stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
+        accountSnapshotCache.putOwnerAccounts(currentUserId, accounts, stamp);
+        return accounts;
     }
     
+    // Not @Transactional for the same reason as getMyAccounts()
     public AccountResponse getAccount(String accountNumber) {
-        Account account = findAccountByNumber(accountNumber);
+        return operationMetrics.record("account.get", () -> loadAccount(accountNumber));
+    }
+    
+    private AccountResponse loadAccount(String accountNumber) {
+        AccountSnapshot snapshot = accountSnapshotCache.get(accountNumber);
+        if (snapshot == null) {
+            long stamp = accountSnapshotCache.stamp();
+            AccountView account = ledgerService.findAccountView(accountNumber)
+                    .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+            snapshot = new AccountSnapshot(account.getOwnerId(), mapToResponse(account));
+            accountSnapshotCache.put(snapshot, stamp);
+        }
         
         // Security check: only owner can view
-        User currentUser = getCurrentUser();
-        if (!account.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("You don't have permission to view this account");
+        if (!snapshot.ownerId().equals(getCurrentUserId())) {
+            throw new PermissionDeniedException("You don't have permission to view this account");
         }
         
-        return mapToResponse(account);
+        return snapshot.response();
+    }
+    
+    @Transactional(readOnly = true)
+    public BalanceAtResponse getBalanceAt(String accountNumber, LocalDateTime at) {
+        return operationMetrics.record("account.balance-at", () -> loadBalanceAt(accountNumber, at));
+    }
+    
+    // Closing balance of the last rolled-up day before `at`, plus the entries since; without a rollup, the full history
+    private BalanceAtResponse loadBalanceAt(String accountNumber, LocalDateTime at) {
+        AccountView account = findOwnedAccountView(accountNumber);
+        DailyBalance rollup = dailyBalanceRepository
+                .findFirstByAccountIdAndBalanceDateLessThanOrderByBalanceDateDesc(account.getId(), at.toLocalDate())
+                .orElse(null);
+        BigDecimal opening = rollup != null ? rollup.getClosingBalance() : BigDecimal.ZERO;
+        LocalDateTime from = rollup != null ? rollup.getBalanceDate().plusDays(1).atStartOfDay() : account.getCreatedAt();
+        
+        return BalanceAtResponse.builder()
+                .accountNumber(accountNumber)
+                .at(at)
+                .balance(opening.add(transactionRepository.sumAmountsBetween(account.getId(), from, at)))
+                .build();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<MonthlyStatsResponse> getMonthlyStats(String accountNumber, YearMonth from, YearMonth to) {
+        return operationMetrics.record("account.monthly-stats", () -> loadMonthlyStats(accountNumber, from, to));
+    }
+    
+    // Read from account_monthly_stats: one row per month and transaction type, whatever the history length,
+    // plus the deltas of recent postings that haven't been folded into those rows yet
+    private List<MonthlyStatsResponse> loadMonthlyStats(String accountNumber, YearMonth from, YearMonth to) {
+        AccountView account = findOwnedAccountView(accountNumber);
+        List<AccountMonthlyStat> rows = accountMonthlyStatRepository.findByAccountIdAndPeriodStartBetweenOrderByPeriodStartAsc(
+                account.getId(), from.atDay(1), to.atDay(1));
+        List<AccountMonthlyStatDelta> pending = accountMonthlyStatDeltaRepository.findByAccountIdAndPeriodStartBetween(
+                account.getId(), from.atDay(1), to.atDay(1));
+        
+        Map<YearMonth, MonthlyStatsResponse> months = new TreeMap<>();
+        for (AccountMonthlyStat row : rows) {
+            addToMonth(months, row.getPeriodStart(), row.getType(), row.getInflow(), row.getOutflow(), row.getEntryCount());
+        }
+        for (AccountMonthlyStatDelta delta : pending) {
+            addToMonth(months, delta.getPeriodStart(), delta.getType(), delta.getInflow(), delta.getOutflow(), delta.getEntryCount());
+        }
+        return new ArrayList<>(months.values());
+    }
+    
+    private void addToMonth(Map<YearMonth, MonthlyStatsResponse> months, LocalDate periodStart, TransactionType type,
+                            BigDecimal inflow, BigDecimal outflow, long count) {
+        MonthlyStatsResponse month = months.computeIfAbsent(YearMonth.from(periodStart), key ->
+                MonthlyStatsResponse.builder()
+                        .month(key)
+                        .inflow(BigDecimal.ZERO)
+                        .outflow(BigDecimal.ZERO)
+                        .byType(new EnumMap<>(TransactionType.class))
+                        .build());
+        month.setInflow(month.getInflow().add(inflow));
+        month.setOutflow(month.getOutflow().add(outflow));
+        month.setCount(month.getCount() + count);
+        month.getByType().merge(type, new MonthlyStatsResponse.TypeTotals(inflow, outflow, count), (current, added) ->
+                new MonthlyStatsResponse.TypeTotals(current.getInflow().add(added.getInflow()),
+                        current.getOutflow().add(added.getOutflow()), current.getCount() + added.getCount()));
+    }
+    
+    private AccountView findOwnedAccountView(String accountNumber) {
+        AccountView account = ledgerService.findAccountView(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        
+        // Security check: only owner can view
+        if (!account.getOwnerId().equals(getCurrentUserId())) {
+            throw new PermissionDeniedException("You don't have permission to view this account");
+        }
+        return account;
     }
     
-    @Transactional
     public AccountResponse deposit(DepositRequest request) {
-        Account account = findAccountByNumber(request.getAccountNumber());
+        return operationMetrics.record("account.deposit", () -> postDeposit(request));
+    }
+    
+    private AccountResponse postDeposit(DepositRequest request) {
+        if (groupCommitJournal.isEnabled()) {
+            Account account = findAccountByNumber(request.getAccountNumber());
+            groupCommitJournal.post(List.of(buildDeposit(account, request)));
+            
+            // The journal writer updated the row with bulk UPDATEs; `account` is the stale managed copy (open-in-view
+            // keeps this persistence context alive), so read the balance through a projection instead
+            return getPostedAccount(request.getAccountNumber());
+        }
         
-        // Update balance
-        account.setBalance(account.getBalance().add(request.getAmount()));
-        accountRepository.save(account);
+        return ledgerService.execute(
+                List.of(),
+                List.of(request.getAccountNumber()),
+                () -> transactionTemplate.execute(status -> doDeposit(request))
+        );
+    }
+    
+    private AccountResponse doDeposit(DepositRequest request) {
+        Account account = ledgerService.loadAccounts(List.of(), List.of(request.getAccountNumber()))
+                .get(request.getAccountNumber());
+        if (account == null) {
+            throw new ResourceNotFoundException("Account not found");
+        }
         
-        // Create transaction record
-        Transaction transaction = Transaction.builder()
-                .transactionId(generateTransactionId())
+        // Create transaction record and update balance
+        ledgerService.post(List.of(buildDeposit(account, request)));
+        accountSnapshotCache.evictAccountsAfterCommit(List.of(account.getAccountNumber()));
+        
+        return mapToResponse(account);
+    }
+    
+    // Answers a retried deposit or transfer that posted but whose response was lost: the account as it is now.
+    // No ownership check, matching what deposit() itself returns.
+    public AccountResponse getPostedAccount(String accountNumber) {
+        return ledgerService.findAccountView(accountNumber)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+    }
+    
+    private Transaction buildDeposit(Account account, DepositRequest request) {
+        return Transaction.builder()
+                .transactionId(transactionIdGenerator.nextTransactionId())
                 .type(TransactionType.DEPOSIT)
                 .amount(request.getAmount())
                 .description("Deposit to account")
                 .account(account)
                 .timestamp(LocalDateTime.now())
                 .build();
-        
-        transactionRepository.save(transaction);
-        
-        return mapToResponse(account);
     }
     
     // Helper methods
-    private User getCurrentUser() {
-        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
+    private Long getCurrentUserId() {
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
-        return userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return user.getId();
     }
     
     private Account findAccountByNumber(String accountNumber) {
         return accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
     }
     
-    private String generateAccountNumber() {
-        Random random = new Random();
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 10; i++) {
-            sb.append(random.nextInt(10));
-        }
-        String accountNumber = sb.toString();
-        
-        // Ensure uniqueness
-        while (accountRepository.existsByAccountNumber(accountNumber)) {
-            accountNumber = generateAccountNumber();
-        }
-        
-        return accountNumber;
-    }
-    
-    private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis() + new Random().nextInt(1000);
+    public AccountResponse mapToResponse(Account account) {
+        return AccountResponse.builder()
+                .id(account.getId())
+                .accountNumber(account.getAccountNumber())
+                .accountName(account.getAccountName())
+                .balance(ledgerService.currentBalance(account))
+                .createdAt(account.getCreatedAt())
+                .build();
     }
     
-    private AccountResponse mapToResponse(Account account) {
+    public AccountResponse mapToResponse(AccountView account) {
         return AccountResponse.builder()
                 .id(account.getId())
                 .accountNumber(account.getAccountNumber())
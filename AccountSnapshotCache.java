@@ -0,0 +1,199 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.config.ReadRouting;
+import com.example.bankingapi.dto.response.AccountResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded in-process cache of account snapshots, keyed by account number, plus each owner's account numbers.
+// Entries are only ever invalidated after a write commits, and a reader may only populate an entry if that key
+// wasn't invalidated since it took its stamp, so neither rolled-back nor pre-commit values can get cached.
+// Invalidations are tracked per key hash slot, so writes to other accounts don't stop a reader's fill.
+// Reads served by a replica are never cached either, since they may predate a write already committed.
+@Component
+public class AccountSnapshotCache {
+    private static final int STRIPES = 16;
+    private static final int VERSION_SLOTS = 4096;
+    
+    // Numbers every invalidation; a stamp is the latest number at the time it was taken
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    private final StripedLruCache<String, AccountSnapshot> accounts;
+    private final StripedLruCache<Long, List<String>> ownerAccounts;
+    private final ReadRouting readRouting;
+    
+    public AccountSnapshotCache(
+            @Value("${bank.account-cache.max-entries:10000}") int maxEntries,
+            MeterRegistry meterRegistry,
+            ReadRouting readRouting
+    ) {
+        this.readRouting = readRouting;
+        this.accounts = new StripedLruCache<>(maxEntries);
+        this.ownerAccounts = new StripedLruCache<>(maxEntries);
+        
+        FunctionCounter.builder("bank.account.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("bank.account.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("bank.account.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+    }
+    
+    // Take before reading from the database; pass to put()
+    public long stamp() {
+        return sequence.get();
+    }
+    
+    public AccountSnapshot get(String accountNumber) {
+        AccountSnapshot snapshot = accounts.get(accountNumber);
+        (snapshot != null ? hits : misses).increment();
+        return snapshot;
+    }
+    
+    public void put(AccountSnapshot snapshot, long stamp) {
+        if (readRouting.readsFromReplica()) {
+            return;
+        }
+        accounts.put(snapshot.response().getAccountNumber(), snapshot, stamp);
+    }
+    
+    // Null unless the owner's account list and every account in it are cached
+    public List<AccountResponse> getOwnerAccounts(Long ownerId) {
+        List<String> accountNumbers = ownerAccounts.get(ownerId);
+        if (accountNumbers == null) {
+            misses.increment();
+            return null;
+        }
+        
+        List<AccountResponse> responses = new ArrayList<>(accountNumbers.size());
+        for (String accountNumber : accountNumbers) {
+            AccountSnapshot snapshot = accounts.get(accountNumber);
+            if (snapshot == null) {
+                misses.increment();
+                return null;
+            }
+            responses.add(snapshot.response());
+        }
+        hits.increment();
+        return responses;
+    }
+    
+    public void putOwnerAccounts(Long ownerId, List<AccountResponse> responses, long stamp) {
+        if (readRouting.readsFromReplica()) {
+            return;
+        }
+        List<String> accountNumbers = new ArrayList<>(responses.size());
+        for (AccountResponse response : responses) {
+            accounts.put(response.getAccountNumber(), new AccountSnapshot(ownerId, response), stamp);
+            accountNumbers.add(response.getAccountNumber());
+        }
+        ownerAccounts.put(ownerId, List.copyOf(accountNumbers), stamp);
+    }
+    
+    public void evictAccountsAfterCommit(Collection<String> accountNumbers) {
+        List<String> keys = List.copyOf(accountNumbers);
+        afterCommit(() -> keys.forEach(accounts::invalidate));
+    }
+    
+    public void evictOwnerAfterCommit(Long ownerId) {
+        afterCommit(() -> ownerAccounts.invalidate(ownerId));
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    public record AccountSnapshot(Long ownerId, AccountResponse response) {
+    }
+    
+    // LRU maps striped by key hash, each behind its own lock, plus the last invalidation number per version slot
+    private final class StripedLruCache<K, V> {
+        private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        private final List<Map<K, V>> maps = new ArrayList<>(STRIPES);
+        private final AtomicLongArray versions = new AtomicLongArray(VERSION_SLOTS);
+        
+        StripedLruCache(int maxEntries) {
+            int stripeCapacity = Math.max(1, maxEntries / STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new ReentrantLock();
+                maps.add(new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                        if (size() > stripeCapacity) {
+                            evictions.increment();
+                            return true;
+                        }
+                        return false;
+                    }
+                });
+            }
+        }
+        
+        V get(K key) {
+            int stripe = stripe(key);
+            locks[stripe].lock();
+            try {
+                return maps.get(stripe).get(key);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        
+        void put(K key, V value, long stamp) {
+            int stripe = stripe(key);
+            locks[stripe].lock();
+            try {
+                // Checked under the stripe lock: a concurrent invalidation of this key either happened before
+                // (stale, dropped) or waits for this put and removes the entry afterwards
+                if (versions.get(versionSlot(key)) <= stamp) {
+                    maps.get(stripe).put(key, value);
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        
+        void invalidate(K key) {
+            int stripe = stripe(key);
+            locks[stripe].lock();
+            try {
+                // Max, not set: another key in the slot may have recorded a later number first
+                versions.accumulateAndGet(versionSlot(key), sequence.incrementAndGet(), Math::max);
+                maps.get(stripe).remove(key);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        
+        private int stripe(K key) {
+            return Math.floorMod(key.hashCode(), STRIPES);
+        }
+        
+        private int versionSlot(K key) {
+            return Math.floorMod(key.hashCode(), VERSION_SLOTS);
+        }
+    }
+}
\ No newline at end of file
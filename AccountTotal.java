@@ -0,0 +1,9 @@
+package com.example.bank.repository;
+
+import java.math.BigDecimal;
+
+// Per-account sum of transaction amounts over some range
+public interface AccountTotal {
+    Long getAccountId();
+    BigDecimal getTotal();
+}
\ No newline at end of file
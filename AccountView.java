@@ -0,0 +1,14 @@
+package com.example.bank.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read-only projection of an account: one SELECT, no User or Transaction graph attached
+public interface AccountView {
+    Long getId();
+    String getAccountNumber();
+    String getAccountName();
+    BigDecimal getBalance();
+    LocalDateTime getCreatedAt();
+    Long getOwnerId();
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.example.bank.controller;
+
+import com.example.bankingapi.dto.request.TransactionSearchRequest;
+import com.example.bankingapi.dto.response.EventPageResponse;
+import com.example.bankingapi.dto.response.StatsBackfillResponse;
+import com.example.bankingapi.dto.response.TransactionPageResponse;
+import com.example.bankingapi.service.AccountMonthlyStatsBackfill;
+import com.example.bankingapi.service.EventLog;
+import com.example.bankingapi.service.TransactionSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Operator endpoints; SecurityConfig restricts /api/admin/** to ADMIN users
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+    private final AccountMonthlyStatsBackfill accountMonthlyStatsBackfill;
+    private final TransactionSearchService transactionSearchService;
+    private final EventLog eventLog;
+    
+    @PostMapping("/analytics/backfill")
+    public ResponseEntity<StatsBackfillResponse> backfillMonthlyStats() {
+        return ResponseEntity.ok(accountMonthlyStatsBackfill.rebuild());
+    }
+    
+    @GetMapping("/transactions/search")
+    public ResponseEntity<TransactionPageResponse> searchTransactions(@ModelAttribute TransactionSearchRequest request) {
+        return ResponseEntity.ok(transactionSearchService.search(request));
+    }
+    
+    // Reads from `from`, or else from the consumer's committed offset, or else from the start of the log
+    @GetMapping("/events")
+    public ResponseEntity<EventPageResponse> readEvents(
+            @RequestParam(required = false) String consumer,
+            @RequestParam(required = false) Long from,
+            @RequestParam(defaultValue = "100") int max
+    ) {
+        long offset = from != null ? from : consumer != null ? eventLog.committedOffset(consumer) : 0;
+        List<EventPageResponse.EventResponse> events = eventLog.read(offset, Math.min(Math.max(max, 1), 1000)).stream()
+                .map(record -> new EventPageResponse.EventResponse(record.offset(), new String(record.payload(), StandardCharsets.UTF_8)))
+                .toList();
+        
+        return ResponseEntity.ok(EventPageResponse.builder()
+                .events(events)
+                .nextOffset(events.isEmpty() ? offset : events.get(events.size() - 1).getOffset() + 1)
+                .build());
+    }
+    
+    @PutMapping("/events/consumers/{consumer}/offset")
+    public ResponseEntity<Void> commitEventOffset(@PathVariable String consumer, @RequestParam long offset) {
+        eventLog.commitOffset(consumer, offset);
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
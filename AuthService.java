@@ -1,17 +1,23 @@
 package com.example.bank.service;
 
+import com.example.bankingapi.config.AuthenticatedUser;
 import com.example.bankingapi.config.JwtService;
+import com.example.bankingapi.config.TokenVersionRegistry;
 import com.example.bankingapi.dto.request.LoginRequest;
 import com.example.bankingapi.dto.request.RegisterRequest;
 import com.example.bankingapi.dto.response.AuthResponse;
+import com.example.bankingapi.exception.ResourceNotFoundException;
 import com.example.bankingapi.model.Role;
 import com.example.bankingapi.model.User;
 import com.example.bankingapi.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -20,8 +26,14 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final OperationMetrics operationMetrics;
     
     public AuthResponse register(RegisterRequest request) {
+        return operationMetrics.record("auth.register", () -> registerUser(request));
+    }
+    
+    private AuthResponse registerUser(RegisterRequest request) {
         // Check if user exists
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already registered");
@@ -50,6 +62,10 @@ public class AuthService {
     }
     
     public AuthResponse login(LoginRequest request) {
+        return operationMetrics.record("auth.login", () -> authenticate(request));
+    }
+    
+    private AuthResponse authenticate(LoginRequest request) {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
@@ -58,7 +74,7 @@ public class AuthService {
         );
         
         var user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         var jwtToken = jwtService.generateToken(user);
         
@@ -69,4 +85,22 @@ public class AuthService {
                 .lastName(user.getLastName())
                 .build();
     }
+    
+    // Revokes every token issued to the current user, on all devices
+    @Transactional
+    public void logout() {
+        operationMetrics.run("auth.logout", this::revokeTokens);
+    }
+    
+    private void revokeTokens() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new RuntimeException("Not authenticated");
+        }
+        
+        userRepository.incrementTokenVersion(user.getId());
+        int tokenVersion = userRepository.findTokenVersionById(user.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        tokenVersionRegistry.update(user.getId(), tokenVersion);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.bank.config;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Request principal built from JWT claims alone, so authenticating a request needs no user lookup
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal {
+    private final Long id;
+    private final String email;
+    private final String role;
+    private final int tokenVersion;
+    
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+    
+    @Override
+    public String getName() {
+        return email;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.bank.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceAtResponse {
+    private String accountNumber;
+    private LocalDateTime at;
+    private BigDecimal balance;
+}
\ No newline at end of file
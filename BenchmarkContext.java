@@ -0,0 +1,81 @@
+package com.example.bank.benchmark;
+
+import com.example.bankingapi.config.AuthenticatedUser;
+import com.example.bankingapi.loadtest.LoadTestHarness;
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.Role;
+import com.example.bankingapi.model.User;
+import com.example.bankingapi.repository.AccountRepository;
+import com.example.bankingapi.repository.UserRepository;
+import com.example.bankingapi.service.AccountNumberGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Boots the real application for a benchmark: every service, repository and transaction manager is the one
+// production uses, on a private in-memory H2 database, so the suite still runs offline.
+// Rows are seeded through the repositories; services that read the principal need authenticate() on the calling thread.
+final class BenchmarkContext {
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    
+    private BenchmarkContext() {
+    }
+    
+    static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:benchmark-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("jwt.secret", "YmVuY2htYXJrLXNlY3JldC1rZXktZm9yLWxvY2FsLXJ1bnMtb25seQ==");
+        properties.put("jwt.expiration", "86400000");
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+        
+        SpringApplication application = new SpringApplication(LoadTestHarness.LoadTestApplication.class);
+        application.setDefaultProperties(properties);
+        return application.run();
+    }
+    
+    static User seedUser(ConfigurableApplicationContext context, String name) {
+        return context.getBean(UserRepository.class).save(User.builder()
+                .email(name + "@benchmark.example.com")
+                .password("not-used")
+                .firstName("Bench")
+                .lastName(name)
+                .role(Role.USER)
+                .tokenVersion(0)
+                .build());
+    }
+    
+    static Account seedAccount(ConfigurableApplicationContext context, User owner, BigDecimal balance) {
+        return seedAccount(context, owner, context.getBean(AccountNumberGenerator.class).next(), balance);
+    }
+    
+    static Account seedAccount(ConfigurableApplicationContext context, User owner, String accountNumber, BigDecimal balance) {
+        return context.getBean(AccountRepository.class).save(Account.builder()
+                .accountNumber(accountNumber)
+                .accountName("Benchmark")
+                .balance(balance)
+                .user(owner)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+    
+    // Same principal JwtAuthenticationFilter installs for a request
+    static void authenticate(User user) {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole().name(),
+                user.getTokenVersion());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
\ No newline at end of file
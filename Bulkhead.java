@@ -0,0 +1,65 @@
+package com.example.bank.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Concurrency limit for one endpoint group: a request waits at most max-wait-millis for a permit, then is rejected
+public class Bulkhead {
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+    private final Timer waitTimer;
+    
+    public Bulkhead(BulkheadGroup group, int maxConcurrent, long maxWaitMillis, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        
+        String tag = group.key();
+        Gauge.builder("bank.bulkhead.active", this, Bulkhead::active)
+                .tag("group", tag)
+                .register(meterRegistry);
+        Gauge.builder("bank.bulkhead.utilization", this, bulkhead -> bulkhead.active() / (double) bulkhead.maxConcurrent)
+                .tag("group", tag)
+                .register(meterRegistry);
+        Gauge.builder("bank.bulkhead.limit", this, bulkhead -> bulkhead.maxConcurrent)
+                .tag("group", tag)
+                .register(meterRegistry);
+        Gauge.builder("bank.bulkhead.queued", permits, Semaphore::getQueueLength)
+                .tag("group", tag)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("bank.bulkhead.rejected")
+                .tag("group", tag)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("bank.bulkhead.wait")
+                .tag("group", tag)
+                .register(meterRegistry);
+    }
+    
+    public boolean tryEnter() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        long start = System.nanoTime();
+        boolean acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+        }
+        return acquired;
+    }
+    
+    public void exit() {
+        permits.release();
+    }
+    
+    private int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
\ No newline at end of file
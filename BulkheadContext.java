@@ -0,0 +1,23 @@
+package com.example.bank.config;
+
+// The bulkhead group the current thread works for, which PartitionedDataSource picks a connection pool by.
+// Set by BulkheadFilter for admitted requests, carried into async work by BulkheadTaskDecorator, and set for
+// good by dedicated threads such as the group-commit writer. Threads without a group use the background pool.
+public final class BulkheadContext {
+    private static final ThreadLocal<BulkheadGroup> CURRENT_GROUP = new ThreadLocal<>();
+    
+    private BulkheadContext() {
+    }
+    
+    public static BulkheadGroup current() {
+        return CURRENT_GROUP.get();
+    }
+    
+    public static void set(BulkheadGroup group) {
+        CURRENT_GROUP.set(group);
+    }
+    
+    public static void clear() {
+        CURRENT_GROUP.remove();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.example.bank.config;
+
+import com.example.bankingapi.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Admission control per endpoint group, ahead of authentication so a login storm is shed before any hashing.
+// auth: /api/auth/**; export: statement downloads; money: deposits, transfers and other writes; read: everything
+// else under /api. A request that can't get a permit within its group's max-wait-millis gets 503 with Retry-After.
+// The group is also set in BulkheadContext, which PartitionedDataSource picks the connection pool by.
+// An async request (a statement export) keeps its permit until the async processing completes.
+// max-concurrent defaults to the connections the group can draw from (its partition, or its share of the shared
+// pool) and may not exceed them, so an admitted request never queues inside Hikari: the overflow is rejected here.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class BulkheadFilter extends OncePerRequestFilter {
+    private final Map<BulkheadGroup, Bulkhead> bulkheads = new EnumMap<>(BulkheadGroup.class);
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int retryAfterSeconds;
+    
+    public BulkheadFilter(
+            Environment environment,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${bank.bulkhead.enabled:true}") boolean enabled,
+            @Value("${bank.bulkhead.retry-after-seconds:1}") int retryAfterSeconds
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        for (BulkheadGroup group : BulkheadGroup.values()) {
+            bulkheads.put(group, bulkhead(environment, meterRegistry, group));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        BulkheadGroup group = classify(request);
+        Bulkhead bulkhead = bulkheads.get(group);
+        
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryEnter();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(response, group);
+            return;
+        }
+        
+        BulkheadContext.set(group);
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ExitOnCompletion(bulkhead));
+                async = true;
+            }
+        } finally {
+            BulkheadContext.clear();
+            if (!async) {
+                bulkhead.exit();
+            }
+        }
+    }
+    
+    private static BulkheadGroup classify(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/api/auth/")) {
+            return BulkheadGroup.AUTH;
+        }
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return BulkheadGroup.MONEY;
+        }
+        return request.getRequestURI().endsWith("/statement") ? BulkheadGroup.EXPORT : BulkheadGroup.READ;
+    }
+    
+    private void reject(HttpServletResponse response, BulkheadGroup group) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .message("Too many concurrent " + group.key() + " requests, please retry shortly")
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+    
+    private static Bulkhead bulkhead(Environment environment, MeterRegistry meterRegistry, BulkheadGroup group) {
+        int connections = group.connections(environment);
+        String property = "bank.bulkhead." + group.key() + ".max-concurrent";
+        int maxConcurrent = environment.getProperty(property, Integer.class, connections);
+        if (maxConcurrent > connections) {
+            throw new IllegalStateException(property + " (" + maxConcurrent + ") exceeds the " + connections
+                    + " connections its requests draw from");
+        }
+        return new Bulkhead(group, maxConcurrent, group.maxWaitMillis(environment), meterRegistry);
+    }
+    
+    // Complete, timeout and error can all fire for one request; the permit is returned once
+    private static final class ExitOnCompletion implements AsyncListener {
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean exited = new AtomicBoolean();
+        
+        private ExitOnCompletion(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            exit();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            exit();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            exit();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+        
+        private void exit() {
+            if (exited.compareAndSet(false, true)) {
+                bulkhead.exit();
+            }
+        }
+    }
+}
\ No newline at end of file
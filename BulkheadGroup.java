@@ -0,0 +1,76 @@
+package com.example.bank.config;
+
+import org.springframework.core.env.Environment;
+
+// Defaults for bank.bulkhead.<group>.pool-size and max-wait-millis
+public enum BulkheadGroup {
+    AUTH(4, 50),
+    READ(8, 100),
+    MONEY(10, 250),
+    // Streamed statement exports, which hold their permit and connection for the whole download
+    EXPORT(4, 0);
+    
+    private final int defaultPoolSize;
+    private final long defaultMaxWaitMillis;
+    
+    BulkheadGroup(int defaultPoolSize, long defaultMaxWaitMillis) {
+        this.defaultPoolSize = defaultPoolSize;
+        this.defaultMaxWaitMillis = defaultMaxWaitMillis;
+    }
+    
+    public String key() {
+        return name().toLowerCase();
+    }
+    
+    public int poolSize(Environment environment) {
+        return environment.getProperty("bank.bulkhead." + key() + ".pool-size", Integer.class, defaultPoolSize);
+    }
+    
+    // Connections the group's requests can draw from: its own partition, or without partitions its share of the
+    // shared pool. Shares are proportional to the groups' pool sizes (largest remainder, at least one each), so
+    // they add up to maximum-pool-size and the groups together can't admit more requests than there are connections.
+    public int connections(Environment environment) {
+        if (environment.getProperty("bank.bulkhead.pool-partitions.enabled", Boolean.class, false)) {
+            return poolSize(environment);
+        }
+        return sharedPoolShares(environment)[ordinal()];
+    }
+    
+    private static int[] sharedPoolShares(Environment environment) {
+        int shared = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        BulkheadGroup[] groups = values();
+        int weights = 0;
+        for (BulkheadGroup group : groups) {
+            weights += group.poolSize(environment);
+        }
+        
+        int[] shares = new int[groups.length];
+        long[] remainders = new long[groups.length];
+        int assigned = 0;
+        for (BulkheadGroup group : groups) {
+            long scaled = (long) shared * group.poolSize(environment);
+            shares[group.ordinal()] = (int) (scaled / weights);
+            remainders[group.ordinal()] = scaled % weights;
+            assigned += shares[group.ordinal()];
+        }
+        // Hand out what rounding down left over, largest remainder first
+        for (; assigned < shared; assigned++) {
+            int largest = 0;
+            for (int i = 1; i < groups.length; i++) {
+                if (remainders[i] > remainders[largest]) {
+                    largest = i;
+                }
+            }
+            shares[largest]++;
+            remainders[largest] = -1;
+        }
+        for (int i = 0; i < groups.length; i++) {
+            shares[i] = Math.max(shares[i], 1);
+        }
+        return shares;
+    }
+    
+    public long maxWaitMillis(Environment environment) {
+        return environment.getProperty("bank.bulkhead." + key() + ".max-wait-millis", Long.class, defaultMaxWaitMillis);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.bank.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+// Runs async work (statement exports, @Async methods) under the bulkhead group of the request that started it,
+// so it draws from that group's connection pool rather than the background pool.
+// Spring Boot applies it to the application task executor; VirtualThreadConfig applies it to its own.
+@Component
+public class BulkheadTaskDecorator implements TaskDecorator {
+    
+    @Override
+    @NonNull
+    public Runnable decorate(@NonNull Runnable runnable) {
+        BulkheadGroup group = BulkheadContext.current();
+        if (group == null) {
+            return runnable;
+        }
+        return () -> {
+            BulkheadGroup previous = BulkheadContext.current();
+            BulkheadContext.set(group);
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    BulkheadContext.set(previous);
+                } else {
+                    BulkheadContext.clear();
+                }
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.bank.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Closing balance of an account at the end of a day it had activity on; written once the day is closed
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "daily_balances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_balances_account_date", columnNames = {"account_id", "balance_date"})
+})
+public class DailyBalance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+    
+    @Column(name = "balance_date", nullable = false)
+    private LocalDate balanceDate;
+    
+    @Column(nullable = false)
+    private BigDecimal closingBalance;
+}
\ No newline at end of file
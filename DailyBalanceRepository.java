@@ -0,0 +1,20 @@
+package com.example.bank.repository;
+
+import com.example.bankingapi.model.DailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, Long> {
+    
+    // Served by uk_daily_balances_account_date
+    Optional<DailyBalance> findFirstByAccountIdAndBalanceDateLessThanOrderByBalanceDateDesc(Long accountId, LocalDate date);
+    
+    @Query("SELECT MAX(d.balanceDate) FROM DailyBalance d")
+    Optional<LocalDate> findLastRolledUpDate();
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.DailyBalance;
+import com.example.bankingapi.repository.AccountTotal;
+import com.example.bankingapi.repository.DailyBalanceRepository;
+import com.example.bankingapi.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes daily_balances rows for every closed day, one day per transaction, picking up where the table ends.
+// A day counts as closed once grace-minutes have passed after midnight, so entries stamped just before
+// midnight but committed just after are still included.
+@Component
+@RequiredArgsConstructor
+public class DailyBalanceRollup {
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    
+    @Value("${bank.balance-rollup.grace-minutes:5}")
+    private long graceMinutes;
+    
+    @Scheduled(fixedDelayString = "${bank.balance-rollup.interval-millis:600000}")
+    public void rollUpClosedDays() {
+        LocalDate lastClosed = LocalDateTime.now().minusMinutes(graceMinutes).toLocalDate().minusDays(1);
+        LocalDate day = nextDayToRollUp();
+        while (day != null && !day.isAfter(lastClosed)) {
+            LocalDate current = day;
+            try {
+                transactionTemplate.executeWithoutResult(status -> rollUp(current));
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance is rolling up the same day
+                return;
+            }
+            day = day.plusDays(1);
+        }
+    }
+    
+    private LocalDate nextDayToRollUp() {
+        return dailyBalanceRepository.findLastRolledUpDate()
+                .map(date -> date.plusDays(1))
+                .orElseGet(() -> transactionRepository.findFirstTimestamp()
+                        .map(LocalDateTime::toLocalDate)
+                        .orElse(null));
+    }
+    
+    private void rollUp(LocalDate day) {
+        List<AccountTotal> totals = transactionRepository.sumByAccountBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        List<DailyBalance> rows = new ArrayList<>(totals.size());
+        for (AccountTotal total : totals) {
+            BigDecimal opening = dailyBalanceRepository
+                    .findFirstByAccountIdAndBalanceDateLessThanOrderByBalanceDateDesc(total.getAccountId(), day)
+                    .map(DailyBalance::getClosingBalance)
+                    .orElse(BigDecimal.ZERO);
+            rows.add(DailyBalance.builder()
+                    .account(entityManager.getReference(Account.class, total.getAccountId()))
+                    .balanceDate(day)
+                    .closingBalance(opening.add(total.getTotal()))
+                    .build());
+        }
+        dailyBalanceRepository.saveAll(rows);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.example.bank.config;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.example.bank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Replaces the single auto-configured pool when either of these is on:
+// bank.datasource.replica.enabled=true: a second pool points at the replica (bank.datasource.replica.url/username/
+// password/maximum-pool-size) and the application DataSource routes between it and the primary per transaction
+// (see ReadRouting).
+// bank.bulkhead.pool-partitions.enabled=true: the primary is split into one pool per bulkhead group
+// (bank.bulkhead.<group>.pool-size) plus a background pool for schedulers (see BulkheadContext).
+// Primary pools keep the spring.datasource.* and spring.datasource.hikari.* settings.
+@Configuration
+@ConditionalOnExpression("${bank.datasource.replica.enabled:false} or ${bank.bulkhead.pool-partitions.enabled:false}")
+public class DataSourceRoutingConfig {
+    
+    @Bean
+    public DataSource primaryDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${bank.bulkhead.pool-partitions.enabled:false}") boolean partitioned
+    ) {
+        if (!partitioned) {
+            return primaryPool(properties, environment, meterRegistry, null, 0);
+        }
+        
+        Map<BulkheadGroup, HikariDataSource> partitions = new EnumMap<>(BulkheadGroup.class);
+        for (BulkheadGroup group : BulkheadGroup.values()) {
+            partitions.put(group, primaryPool(properties, environment, meterRegistry, group.key(), group.poolSize(environment)));
+        }
+        HikariDataSource background = primaryPool(properties, environment, meterRegistry, "background",
+                environment.getProperty("bank.bulkhead.background.pool-size", Integer.class, 4));
+        
+        PartitionedDataSource dataSource = new PartitionedDataSource(partitions, background);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "bank.datasource.replica.enabled", havingValue = "true")
+    public HikariDataSource replicaDataSource(
+            @Value("${bank.datasource.replica.url}") String url,
+            @Value("${bank.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${bank.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${bank.datasource.replica.maximum-pool-size:10}") int maximumPoolSize
+    ) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+            ReadRouting readRouting,
+            MeterRegistry meterRegistry
+    ) {
+        DataSource replicaDataSource = replica.getIfAvailable();
+        if (replicaDataSource == null) {
+            return new LazyConnectionDataSourceProxy(primary);
+        }
+        RoutingDataSource routing = new RoutingDataSource(primary, replicaDataSource, readRouting, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+    
+    private static HikariDataSource primaryPool(DataSourceProperties properties, Environment environment,
+                                                MeterRegistry meterRegistry, String name, int poolSize) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        if (name != null) {
+            // Partitions aren't beans, so they don't get Hikari's auto-configured metrics
+            pool.setPoolName(name);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        if (poolSize > 0) {
+            pool.setMaximumPoolSize(poolSize);
+        }
+        return pool;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,313 @@
+package com.example.bank.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Local append-only event log. Records get consecutive offsets and are written to segment files named after
+// their first offset, rolled at segment-bytes. A record is [payload length][crc32][offset][payload].
+// Each append is fsynced once as a batch before it becomes readable, and on startup the active segment is
+// truncated after its last intact record. Consumer offsets (the next offset to read) live in offsets/<consumer>.
+// The log-id file names this log; instances see the same log only if they see the same log-id.
+@Component
+public class EventLog {
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOG_ID_FILE = "log-id";
+    private static final Pattern CONSUMER_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    // A file position is remembered every this many offsets, so reads don't scan a segment from the start
+    private static final int INDEX_INTERVAL = 1024;
+    
+    private final Path directory;
+    private final Path offsetsDirectory;
+    private final long segmentBytes;
+    private String logId;
+    
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Long, Long> positions = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    
+    // Guarded by appendLock
+    private FileChannel active;
+    private long activeBase;
+    
+    // Everything below this offset is durable and readable
+    private volatile long nextOffset;
+    
+    public EventLog(
+            @Value("${bank.events.dir:data/events}") String directory,
+            @Value("${bank.events.segment-bytes:67108864}") long segmentBytes
+    ) {
+        this.directory = Paths.get(directory);
+        this.offsetsDirectory = this.directory.resolve("offsets");
+        this.segmentBytes = segmentBytes;
+    }
+    
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(offsetsDirectory);
+        logId = readOrCreateLogId();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(file -> segments.put(baseOffsetOf(file), file));
+        }
+        
+        if (segments.isEmpty()) {
+            openSegment(0);
+            nextOffset = 0;
+        } else {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            activeBase = last.getKey();
+            active = FileChannel.open(last.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            nextOffset = recover(active, activeBase);
+        }
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (active != null) {
+                active.force(true);
+                active.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    public String getLogId() {
+        return logId;
+    }
+    
+    public long getNextOffset() {
+        return nextOffset;
+    }
+    
+    // Appends the payloads in order and returns the offset of the first one
+    public long append(List<byte[]> payloads) {
+        appendLock.lock();
+        try {
+            long first = nextOffset;
+            long offset = first;
+            for (byte[] payload : payloads) {
+                long size = active.size();
+                if (size > 0 && size + HEADER_BYTES + payload.length > segmentBytes) {
+                    active.force(true);
+                    active.close();
+                    openSegment(offset);
+                    size = 0;
+                }
+                if (offset % INDEX_INTERVAL == 0) {
+                    positions.put(offset, size);
+                }
+                writeFully(active, encode(offset, payload), size);
+                offset++;
+            }
+            active.force(false);
+            nextOffset = offset;
+            return first;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to append to the event log", ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    public List<EventLogRecord> read(long fromOffset, int maxRecords) {
+        long end = nextOffset;
+        List<EventLogRecord> records = new ArrayList<>(Math.min(maxRecords, 1024));
+        long offset = Math.max(fromOffset, segments.isEmpty() ? 0 : segments.firstKey());
+        
+        while (offset < end && records.size() < maxRecords) {
+            Map.Entry<Long, Path> segment = segments.floorEntry(offset);
+            Map.Entry<Long, Long> indexed = positions.floorEntry(offset);
+            long position = indexed != null && indexed.getKey() >= segment.getKey() ? indexed.getValue() : 0;
+            
+            try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                while (records.size() < maxRecords && readFully(channel, header.clear(), position)) {
+                    int length = header.getInt(0);
+                    long recordOffset = header.getLong(Integer.BYTES * 2);
+                    if (recordOffset >= end) {
+                        return records;
+                    }
+                    if (recordOffset % INDEX_INTERVAL == 0) {
+                        positions.putIfAbsent(recordOffset, position);
+                    }
+                    if (recordOffset >= offset) {
+                        ByteBuffer payload = ByteBuffer.allocate(length);
+                        readFully(channel, payload, position + HEADER_BYTES);
+                        records.add(new EventLogRecord(recordOffset, payload.array()));
+                        offset = recordOffset + 1;
+                    }
+                    position += HEADER_BYTES + length;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to read the event log", ex);
+            }
+            
+            // Reached the end of this segment; continue with the next one
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null) {
+                break;
+            }
+            offset = Math.max(offset, next);
+        }
+        return records;
+    }
+    
+    public long committedOffset(String consumer) {
+        Path file = offsetsDirectory.resolve(checkConsumer(consumer));
+        try {
+            return Files.exists(file) ? Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim()) : 0;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read the consumer offset", ex);
+        }
+    }
+    
+    // Written to a temporary file and moved into place, so a crash leaves either the old or the new offset
+    public void commitOffset(String consumer, long offset) {
+        if (offset < 0 || offset > nextOffset) {
+            throw new RuntimeException("Offset must be between 0 and " + nextOffset);
+        }
+        Path file = offsetsDirectory.resolve(checkConsumer(consumer));
+        Path temporary = offsetsDirectory.resolve(consumer + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, ByteBuffer.wrap(Long.toString(offset).getBytes(StandardCharsets.UTF_8)), 0);
+            channel.force(true);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write the consumer offset", ex);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write the consumer offset", ex);
+        }
+    }
+    
+    // Written to a temporary file and moved into place like a consumer offset, so a crash never leaves it half written
+    private String readOrCreateLogId() throws IOException {
+        Path file = directory.resolve(LOG_ID_FILE);
+        if (!Files.exists(file)) {
+            Path temporary = directory.resolve(LOG_ID_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, ByteBuffer.wrap(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)), 0);
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ex) {
+                // Another instance on the same storage created it first
+            }
+        }
+        return Files.readString(file, StandardCharsets.UTF_8).trim();
+    }
+    
+    private void openSegment(long baseOffset) throws IOException {
+        Path file = directory.resolve(String.format("%020d", baseOffset) + SEGMENT_SUFFIX);
+        active = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBase = baseOffset;
+        segments.put(baseOffset, file);
+    }
+    
+    // Scans the segment, truncates it after the last record with a valid checksum and returns the next offset
+    private long recover(FileChannel channel, long baseOffset) throws IOException {
+        long position = 0;
+        long offset = baseOffset;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (readFully(channel, header.clear(), position)) {
+            int length = header.getInt(0);
+            int checksum = header.getInt(Integer.BYTES);
+            if (length < 0 || position + HEADER_BYTES + length > channel.size()) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            if (checksum != crc(payload.array())) {
+                break;
+            }
+            if (offset % INDEX_INTERVAL == 0) {
+                positions.put(offset, position);
+            }
+            position += HEADER_BYTES + length;
+            offset++;
+        }
+        channel.truncate(position);
+        channel.force(true);
+        return offset;
+    }
+    
+    private static ByteBuffer encode(long offset, byte[] payload) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length);
+        record.putInt(crc(payload));
+        record.putLong(offset);
+        record.put(payload);
+        return record.flip();
+    }
+    
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+    
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+    
+    // False if the channel ends before the buffer is full
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return false;
+            }
+            position += read;
+        }
+        return true;
+    }
+    
+    private static long baseOffsetOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+    
+    private static String checkConsumer(String consumer) {
+        if (consumer == null || !CONSUMER_NAME.matcher(consumer).matches()) {
+            throw new RuntimeException("Consumer names are 1-64 letters, digits, '-' or '_'");
+        }
+        return consumer;
+    }
+    
+    public record EventLogRecord(long offset, byte[] payload) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.bank.dto.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventPageResponse {
+    private List<EventResponse> events;
+    // Offset to read from next; commit it once the events are processed
+    private long nextOffset;
+    
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class EventResponse {
+        private long offset;
+        @JsonRawValue
+        private String event;
+    }
+}
\ No newline at end of file
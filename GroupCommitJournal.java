@@ -0,0 +1,274 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.config.BulkheadContext;
+import com.example.bankingapi.config.BulkheadGroup;
+import com.example.bankingapi.exception.InsufficientBalanceException;
+import com.example.bankingapi.exception.ServiceOverloadedException;
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.Transaction;
+import com.example.bankingapi.repository.AccountRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+// Group commit for balance-mode postings (bank.journal.group-commit.enabled=true).
+// Request threads validate and build their entries, then hand them to a single writer thread that applies
+// everything queued within window-millis (or up to max-batch-size postings) in one database transaction,
+// so one commit is paid per batch instead of per request. A caller's future completes only after that commit.
+// Debits are applied with a conditional UPDATE, so the balance check happens on the writer, not the caller.
+@Component
+public class GroupCommitJournal {
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final AccountMonthlyStatsRecorder monthlyStatsRecorder;
+    private final OutboxService outboxService;
+    private final IdempotencyService idempotencyService;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Posting> queue;
+    
+    private final DistributionSummary batchSizeSummary;
+    private final Timer commitWaitTimer;
+    private final Timer flushTimer;
+    
+    private volatile boolean running;
+    private Thread writer;
+    
+    public GroupCommitJournal(
+            AccountRepository accountRepository,
+            TransactionTemplate transactionTemplate,
+            EntityManager entityManager,
+            AccountSnapshotCache accountSnapshotCache,
+            AccountMonthlyStatsRecorder monthlyStatsRecorder,
+            OutboxService outboxService,
+            IdempotencyService idempotencyService,
+            LedgerService ledgerService,
+            MeterRegistry meterRegistry,
+            @Value("${bank.journal.group-commit.enabled:false}") boolean enabled,
+            @Value("${bank.journal.group-commit.window-millis:5}") long windowMillis,
+            @Value("${bank.journal.group-commit.max-batch-size:256}") int maxBatchSize,
+            @Value("${bank.journal.group-commit.queue-capacity:10000}") int queueCapacity
+    ) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.accountSnapshotCache = accountSnapshotCache;
+        this.monthlyStatsRecorder = monthlyStatsRecorder;
+        this.outboxService = outboxService;
+        this.idempotencyService = idempotencyService;
+        // The append-only ledger already makes postings insert-only, so the journal only serves balance mode
+        this.enabled = enabled && !ledgerService.isAppendOnly();
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        
+        this.batchSizeSummary = DistributionSummary.builder("bank.journal.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitWaitTimer = Timer.builder("bank.journal.commit.wait")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("bank.journal.flush")
+                .register(meterRegistry);
+        Gauge.builder("bank.journal.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        
+        // Anything still queued was never written
+        Posting posting;
+        while ((posting = queue.poll()) != null) {
+            posting.future().completeExceptionally(new RuntimeException("Service is shutting down, the transaction was not recorded"));
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    // Entries must reference persisted accounts; the future fails with "Insufficient balance" if a debit doesn't fit
+    public CompletableFuture<Void> submit(List<Transaction> entries) {
+        Posting posting = new Posting(entries, idempotencyService.currentClaim(), System.nanoTime(), new CompletableFuture<>());
+        if (!queue.offer(posting)) {
+            throw new ServiceOverloadedException("Too many pending transactions, please retry shortly", 1);
+        }
+        return posting.future();
+    }
+    
+    // Blocks until the entries are durable or rejected
+    public void post(List<Transaction> entries) {
+        await(submit(entries));
+    }
+    
+    public static void await(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+    
+    private void writeLoop() {
+        // Every journaled deposit and transfer is written here, so take connections from the money pool
+        BulkheadContext.set(BulkheadGroup.MONEY);
+        List<Posting> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Posting first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                
+                // Collect whatever arrives within the window, up to the batch size
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Posting next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void flush(List<Posting> batch) {
+        batchSizeSummary.record(batch.size());
+        RuntimeException[] failures = new RuntimeException[batch.size()];
+        long flushStart = System.nanoTime();
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> touchedAccounts = new TreeSet<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    failures[i] = apply(batch.get(i), touchedAccounts);
+                }
+                accountSnapshotCache.evictAccountsAfterCommit(touchedAccounts);
+            });
+        } catch (RuntimeException ex) {
+            // The whole batch rolled back; nothing in it was recorded
+            for (Posting posting : batch) {
+                complete(posting, new RuntimeException("Unable to record the transaction, please retry"));
+            }
+            return;
+        } finally {
+            flushTimer.record(System.nanoTime() - flushStart, TimeUnit.NANOSECONDS);
+        }
+        
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), failures[i]);
+        }
+    }
+    
+    // Null once applied, otherwise why the posting was rejected; a rejected posting leaves no trace in the batch
+    private RuntimeException apply(Posting posting, Set<String> touchedAccounts) {
+        // Debits first, so a posting that doesn't fit is rejected before anything is credited
+        List<Transaction> entries = new ArrayList<>(posting.entries());
+        entries.sort(Comparator.comparing(Transaction::getAmount));
+        
+        List<Transaction> applied = new ArrayList<>(entries.size());
+        for (Transaction entry : entries) {
+            Long accountId = entry.getAccount().getId();
+            int updated = entry.getAmount().signum() < 0
+                    ? accountRepository.applyDebit(accountId, entry.getAmount())
+                    : accountRepository.applyCredit(accountId, entry.getAmount());
+            if (updated == 0) {
+                undo(applied);
+                return new InsufficientBalanceException();
+            }
+            applied.add(entry);
+        }
+        
+        // Commits with the batch, like the entries; a claim taken over by a retry must not be posted
+        if (!idempotencyService.markApplied(posting.claim(), entries.get(0).getTransactionId())) {
+            undo(applied);
+            return IdempotencyService.claimLost();
+        }
+        
+        List<String> accountNumbers = new ArrayList<>(entries.size());
+        for (Transaction entry : entries) {
+            accountNumbers.add(entry.getAccount().getAccountNumber());
+            entry.setAccount(entityManager.getReference(Account.class, entry.getAccount().getId()));
+            entry.setFolded(true);
+            entityManager.persist(entry);
+        }
+        touchedAccounts.addAll(accountNumbers);
+        monthlyStatsRecorder.record(entries);
+        outboxService.record(entries, accountNumbers);
+        return null;
+    }
+    
+    private void undo(List<Transaction> applied) {
+        for (Transaction entry : applied) {
+            accountRepository.applyCredit(entry.getAccount().getId(), entry.getAmount().negate());
+        }
+    }
+    
+    private void complete(Posting posting, RuntimeException failure) {
+        commitWaitTimer.record(System.nanoTime() - posting.submittedAt(), TimeUnit.NANOSECONDS);
+        if (failure == null) {
+            posting.future().complete(null);
+        } else {
+            posting.future().completeExceptionally(failure);
+        }
+    }
+    
+    private record Posting(List<Transaction> entries, IdempotencyService.Claim claim, long submittedAt,
+                           CompletableFuture<Void> future) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.bank.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+// Session factory statistics (bound to Micrometer as hibernate.* meters) plus per-thread statement counting
+@Configuration
+public class HibernateMetricsConfig implements HibernatePropertiesCustomizer {
+    
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put("hibernate.generate_statistics", true);
+        hibernateProperties.put("hibernate.session_factory.statement_inspector", new StatementCounter());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.AccountBalanceSlot;
+import com.example.bankingapi.repository.AccountBalanceSlotRepository;
+import com.example.bankingapi.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Split-counter balances for accounts listed in bank.hot-accounts.account-numbers.
+// Credits to a hot account never touch its accounts row: each one is added to a randomly chosen slot row,
+// so concurrent credits mostly land on different rows. The balance is Account.balance plus all slots, and
+// HotAccountMerger periodically moves the slot totals back into Account.balance.
+// Slots are created by a merge (at startup, then on every scheduled run); until a hot account's slots have been
+// committed, its credits are locked and applied to the row like any other account's, see usesSlots().
+@Component
+public class HotAccountBalances {
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository slotRepository;
+    private final Set<String> hotAccountNumbers;
+    private final Set<String> slottedAccountNumbers = ConcurrentHashMap.newKeySet();
+    private final int slots;
+    
+    public HotAccountBalances(
+            AccountRepository accountRepository,
+            AccountBalanceSlotRepository slotRepository,
+            @Value("${bank.hot-accounts.account-numbers:}") String hotAccountNumbers,
+            @Value("${bank.hot-accounts.slots:16}") int slots
+    ) {
+        this.accountRepository = accountRepository;
+        this.slotRepository = slotRepository;
+        this.hotAccountNumbers = new HashSet<>();
+        for (String accountNumber : StringUtils.commaDelimitedListToStringArray(hotAccountNumbers)) {
+            if (!accountNumber.isBlank()) {
+                this.hotAccountNumbers.add(accountNumber.trim());
+            }
+        }
+        this.slots = slots;
+    }
+    
+    public boolean isHot(String accountNumber) {
+        return hotAccountNumbers.contains(accountNumber);
+    }
+    
+    public Set<String> getHotAccountNumbers() {
+        return Collections.unmodifiableSet(hotAccountNumbers);
+    }
+    
+    // Once true it stays true, so an account left out of a unit of work's lock set can't need its row lock later
+    public boolean usesSlots(String accountNumber) {
+        return slottedAccountNumbers.contains(accountNumber);
+    }
+    
+    public void credit(Account account, BigDecimal amount) {
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        if (slotRepository.addToSlot(account.getId(), slot, amount) != 1) {
+            throw new IllegalStateException("Balance slot " + slot + " missing for hot account " + account.getAccountNumber());
+        }
+    }
+    
+    public BigDecimal currentBalance(Account account) {
+        return accountRepository.findSlottedBalance(account.getId());
+    }
+    
+    // Folds every slot into Account.balance, creating the slots on first use; the caller holds the account row lock
+    public void merge(Account account) {
+        List<AccountBalanceSlot> accountSlots = slotRepository.findByAccountIdForUpdate(account.getId());
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountBalanceSlot slot : accountSlots) {
+            if (slot.getBalance().signum() != 0) {
+                total = total.add(slot.getBalance());
+                slot.setBalance(BigDecimal.ZERO);
+            }
+        }
+        
+        if (total.signum() != 0) {
+            account.setBalance(account.getBalance().add(total));
+        }
+        
+        if (accountSlots.size() < slots) {
+            Set<Integer> existing = new HashSet<>();
+            for (AccountBalanceSlot slot : accountSlots) {
+                existing.add(slot.getSlot());
+            }
+            
+            List<AccountBalanceSlot> rows = new ArrayList<>();
+            for (int i = 0; i < slots; i++) {
+                if (!existing.contains(i)) {
+                    rows.add(AccountBalanceSlot.builder()
+                            .account(account)
+                            .slot(i)
+                            .balance(BigDecimal.ZERO)
+                            .build());
+                }
+            }
+            slotRepository.saveAll(rows);
+        }
+        
+        String accountNumber = account.getAccountNumber();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                slottedAccountNumbers.add(accountNumber);
+            }
+        });
+    }
+}
\ No newline at end of file
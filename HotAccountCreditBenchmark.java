@@ -0,0 +1,99 @@
+package com.example.bank.benchmark;
+
+import com.example.bankingapi.dto.request.TransferRequest;
+import com.example.bankingapi.model.User;
+import com.example.bankingapi.service.HotAccountMerger;
+import com.example.bankingapi.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Credits per second into one merchant account, each thread paying from an account of its own.
+// "hot" lists the merchant in bank.hot-accounts.account-numbers so credits go to slots; "row" credits the
+// accounts row under its lock. main() repeats the run for 1, 2, 4, ... threads up to the core count.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HotAccountCreditBenchmark {
+    private static final int MAX_THREADS = 64;
+    private static final String MERCHANT_ACCOUNT = "9999999999";
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000");
+    
+    @Param({"hot", "row"})
+    public String mode;
+    
+    @Param({"16"})
+    public int slots;
+    
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private User payer;
+    private final List<String> payerAccounts = new ArrayList<>();
+    private final AtomicInteger threadIndexes = new AtomicInteger();
+    
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of(
+                "bank.hot-accounts.account-numbers", mode.equals("hot") ? MERCHANT_ACCOUNT : "",
+                "bank.hot-accounts.slots", slots,
+                "spring.datasource.hikari.maximum-pool-size", MAX_THREADS));
+        transactionService = context.getBean(TransactionService.class);
+        payer = BenchmarkContext.seedUser(context, "payer");
+        User merchant = BenchmarkContext.seedUser(context, "merchant");
+        BenchmarkContext.seedAccount(context, merchant, MERCHANT_ACCOUNT, BigDecimal.ZERO);
+        for (int i = 0; i < MAX_THREADS; i++) {
+            payerAccounts.add(BenchmarkContext.seedAccount(context, payer, OPENING_BALANCE).getAccountNumber());
+        }
+        // Create the slots now instead of waiting for the first scheduled merge
+        context.getBean(HotAccountMerger.class).mergeSlots();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @State(Scope.Thread)
+    public static class Payer {
+        private TransferRequest request;
+        
+        @Setup
+        public void setUp(HotAccountCreditBenchmark benchmark) {
+            request = new TransferRequest();
+            request.setFromAccountNumber(benchmark.payerAccounts.get(
+                    benchmark.threadIndexes.getAndIncrement() % MAX_THREADS));
+            request.setToAccountNumber(MERCHANT_ACCOUNT);
+            request.setAmount(BigDecimal.ONE);
+            BenchmarkContext.authenticate(benchmark.payer);
+        }
+    }
+    
+    @Benchmark
+    public void credit(Payer payer) {
+        transactionService.transfer(payer.request);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.min(cores, MAX_THREADS); threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(HotAccountCreditBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Drains hot-account slots back into Account.balance so the slot total stays small, and creates missing slots.
+// Runs once at startup so hot accounts that already exist take credits on their slots from the first request.
+@Component
+@RequiredArgsConstructor
+public class HotAccountMerger {
+    private final AccountRepository accountRepository;
+    private final HotAccountBalances hotAccountBalances;
+    private final TransactionTemplate transactionTemplate;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${bank.hot-accounts.merge-interval-millis:1000}")
+    public void mergeSlots() {
+        for (String accountNumber : hotAccountBalances.getHotAccountNumbers()) {
+            // Same lock debits take, so a debit never sees a half-merged balance
+            transactionTemplate.executeWithoutResult(status -> accountRepository.findByAccountNumberForUpdate(accountNumber)
+                    .ifPresent(hotAccountBalances::merge));
+        }
+    }
+}
\ No newline at end of file
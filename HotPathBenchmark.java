@@ -0,0 +1,185 @@
+package com.example.bank.benchmark;
+
+import com.example.bankingapi.config.JwtService;
+import com.example.bankingapi.dto.response.AccountResponse;
+import com.example.bankingapi.dto.response.TransactionResponse;
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.Role;
+import com.example.bankingapi.model.Transaction;
+import com.example.bankingapi.model.TransactionType;
+import com.example.bankingapi.model.User;
+import com.example.bankingapi.service.AccountNumberGenerator;
+import com.example.bankingapi.service.AccountService;
+import com.example.bankingapi.service.TransactionIdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Micro-benchmarks for the code every request runs through, on the beans the application itself wires
+// (see BenchmarkContext), so configuration such as the JWT key or the account number block size is the real one.
+// Needs jmh-core and jmh-generator-annprocess on the classpath; main() runs the suite with the GC profiler,
+// so each result comes with gc.alloc.rate.norm (bytes allocated per operation).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotPathBenchmark {
+    private ConfigurableApplicationContext context;
+    private JwtService jwtService;
+    private TransactionIdGenerator transactionIdGenerator;
+    private AccountNumberGenerator accountNumberGenerator;
+    private AccountService accountService;
+    private ObjectMapper objectMapper;
+    
+    private User user;
+    private String token;
+    private Account account;
+    private Transaction transaction;
+    private AccountResponse accountResponse;
+    private TransactionResponse transactionResponse;
+    private BigDecimal fromBalance;
+    private BigDecimal toBalance;
+    private BigDecimal amount;
+    
+    @Setup
+    public void setUp() {
+        // Balance mode, no hot accounts: mapToResponse reads Account.balance directly
+        context = BenchmarkContext.start(Map.of());
+        jwtService = context.getBean(JwtService.class);
+        transactionIdGenerator = context.getBean(TransactionIdGenerator.class);
+        accountNumberGenerator = context.getBean(AccountNumberGenerator.class);
+        accountService = context.getBean(AccountService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        
+        user = User.builder()
+                .id(42L)
+                .email("benchmark@example.com")
+                .password("not-used")
+                .firstName("Bench")
+                .lastName("Mark")
+                .role(Role.USER)
+                .tokenVersion(0)
+                .build();
+        token = jwtService.generateToken(user);
+        
+        account = Account.builder()
+                .id(7L)
+                .accountNumber("1234567897")
+                .accountName("Everyday")
+                .balance(new BigDecimal("15230.45"))
+                .user(user)
+                .createdAt(LocalDateTime.now())
+                .build();
+        transaction = Transaction.builder()
+                .id(1001L)
+                .transactionId(transactionIdGenerator.nextTransactionId())
+                .type(TransactionType.TRANSFER)
+                .amount(new BigDecimal("-125.50"))
+                .description("Transfer to 9876543210")
+                .account(account)
+                .destinationAccountNumber("9876543210")
+                .timestamp(LocalDateTime.now())
+                .build();
+        accountResponse = accountService.mapToResponse(account);
+        transactionResponse = mapTransaction();
+        
+        fromBalance = new BigDecimal("15230.45");
+        toBalance = new BigDecimal("980.10");
+        amount = new BigDecimal("125.50");
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+    
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+    
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+    
+    @Benchmark
+    public String generateTransactionId() {
+        return transactionIdGenerator.nextTransactionId();
+    }
+    
+    @Benchmark
+    public String generateAccountNumber() {
+        return accountNumberGenerator.next();
+    }
+    
+    @Benchmark
+    public AccountResponse mapAccountResponse() {
+        return accountService.mapToResponse(account);
+    }
+    
+    // What the TransactionRepository projection does per row
+    @Benchmark
+    public TransactionResponse mapTransactionResponse() {
+        return mapTransaction();
+    }
+    
+    @Benchmark
+    public String serializeAccountResponse() throws Exception {
+        return objectMapper.writeValueAsString(accountResponse);
+    }
+    
+    @Benchmark
+    public String serializeTransactionResponse() throws Exception {
+        return objectMapper.writeValueAsString(transactionResponse);
+    }
+    
+    // The balance check and both updates done per transfer
+    @Benchmark
+    public BigDecimal transferArithmetic() {
+        if (fromBalance.compareTo(amount) < 0) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+        BigDecimal debited = fromBalance.subtract(amount);
+        BigDecimal credited = toBalance.add(amount);
+        return debited.add(credited);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HotPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+    
+    private TransactionResponse mapTransaction() {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getTransactionId(),
+                transaction.getType(),
+                transaction.getAmount(),
+                transaction.getDescription(),
+                account.getAccountNumber(),
+                transaction.getDestinationAccountNumber(),
+                transaction.getTimestamp()
+        );
+    }
+}
\ No newline at end of file
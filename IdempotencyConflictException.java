@@ -0,0 +1,9 @@
+package com.example.bank.exception;
+
+// Idempotency-Key reused for a different request, or its first request is still running; mapped to 409
+public class IdempotencyConflictException extends RuntimeException {
+    
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
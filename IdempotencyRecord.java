@@ -0,0 +1,50 @@
+package com.example.bank.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Outcome of a deposit or transfer sent with an Idempotency-Key, kept so retries can be answered without re-running it
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_created_at", columnList = "createdAt")
+})
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // "<userId>:<Idempotency-Key>"
+    @Column(unique = true, nullable = false)
+    private String idempotencyKey;
+    
+    // Operation name plus a hash of the request body
+    @Column(nullable = false)
+    private String fingerprint;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+    
+    // Identifies the attempt holding a PENDING claim; a stale claim taken over by a retry gets a new token
+    private String claimToken;
+    
+    // Set when the record turns APPLIED, in the same database transaction as the posting
+    private String transactionId;
+    
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime completedAt;
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.example.bank.repository;
+
+import com.example.bankingapi.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+    
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.example.bank.model.IdempotencyStatus.APPLIED, " +
+            "r.transactionId = :transactionId WHERE r.idempotencyKey = :idempotencyKey " +
+            "AND r.claimToken = :claimToken AND r.status = com.example.bank.model.IdempotencyStatus.PENDING")
+    int markApplied(@Param("idempotencyKey") String idempotencyKey,
+                    @Param("claimToken") String claimToken,
+                    @Param("transactionId") String transactionId);
+    
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.example.bank.model.IdempotencyStatus.COMPLETED, " +
+            "r.responseBody = :responseBody, r.completedAt = :completedAt WHERE r.idempotencyKey = :idempotencyKey " +
+            "AND r.claimToken = :claimToken AND r.status = com.example.bank.model.IdempotencyStatus.APPLIED")
+    int markCompleted(@Param("idempotencyKey") String idempotencyKey,
+                      @Param("claimToken") String claimToken,
+                      @Param("responseBody") String responseBody,
+                      @Param("completedAt") LocalDateTime completedAt);
+    
+    // Hands a claim whose holder went quiet to a retry; fails if the holder posted or released it meanwhile
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.claimToken = :newToken, r.createdAt = :now WHERE r.idempotencyKey = :idempotencyKey " +
+            "AND r.claimToken = :oldToken AND r.status = com.example.bank.model.IdempotencyStatus.PENDING " +
+            "AND r.createdAt < :staleBefore")
+    int takeOver(@Param("idempotencyKey") String idempotencyKey,
+                 @Param("oldToken") String oldToken,
+                 @Param("newToken") String newToken,
+                 @Param("now") LocalDateTime now,
+                 @Param("staleBefore") LocalDateTime staleBefore);
+    
+    // Only a claim that never posted can be released; an APPLIED record must survive a failed request
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey " +
+            "AND r.claimToken = :claimToken AND r.status = com.example.bank.model.IdempotencyStatus.PENDING")
+    int deletePending(@Param("idempotencyKey") String idempotencyKey, @Param("claimToken") String claimToken);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
\ No newline at end of file
@@ -0,0 +1,317 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.config.AuthenticatedUser;
+import com.example.bankingapi.dto.response.AccountResponse;
+import com.example.bankingapi.exception.IdempotencyConflictException;
+import com.example.bankingapi.model.IdempotencyRecord;
+import com.example.bankingapi.model.IdempotencyStatus;
+import com.example.bankingapi.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Deduplicates deposits and transfers sent with an Idempotency-Key header.
+// Duplicates on this instance are caught by an in-memory map and wait on the first request's result; the
+// idempotency_records table (unique key) covers other instances and anything that has left the map.
+// A completed operation is replayed from its stored response without touching any account.
+//
+// A request first claims its key with a PENDING record in its own transaction. The posting then flips the claim to
+// APPLIED inside the deposit or transfer transaction (see markApplied), so the record commits or rolls back with the
+// money; the response body is stored afterwards. A crash at any point therefore leaves either a PENDING claim with
+// nothing posted, which a retry takes over once pending-timeout-seconds have passed, or an APPLIED record that is
+// never re-run.
+@Slf4j
+@Service
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 200;
+    private static final ThreadLocal<Claim> CURRENT_CLAIM = new ThreadLocal<>();
+    
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate recordTransactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final long cacheTtlMillis;
+    private final int cacheMaxSize;
+    private final long retentionHours;
+    private final long pendingTimeoutSeconds;
+    private final Counter completeFailures;
+    private final Counter releaseFailures;
+    
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    
+    public IdempotencyService(
+            IdempotencyRecordRepository recordRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${bank.idempotency.cache-ttl-seconds:600}") long cacheTtlSeconds,
+            @Value("${bank.idempotency.cache-max-size:10000}") int cacheMaxSize,
+            @Value("${bank.idempotency.retention-hours:24}") long retentionHours,
+            @Value("${bank.idempotency.pending-timeout-seconds:60}") long pendingTimeoutSeconds
+    ) {
+        this.recordRepository = recordRepository;
+        // Records are written in their own transactions, independent of the operation they guard
+        this.recordTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.recordTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.cacheTtlMillis = TimeUnit.SECONDS.toMillis(cacheTtlSeconds);
+        this.cacheMaxSize = cacheMaxSize;
+        this.retentionHours = retentionHours;
+        this.pendingTimeoutSeconds = pendingTimeoutSeconds;
+        this.completeFailures = Counter.builder("bank.idempotency.record.failures")
+                .tag("step", "complete")
+                .register(meterRegistry);
+        this.releaseFailures = Counter.builder("bank.idempotency.record.failures")
+                .tag("step", "release")
+                .register(meterRegistry);
+    }
+    
+    // replayApplied answers a retry of an operation that posted but whose response was never stored
+    public AccountResponse execute(String idempotencyKey, String operation, Object request,
+                                   Supplier<AccountResponse> work, Supplier<AccountResponse> replayApplied) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return work.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        String key = getCurrentUserId() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(operation, request);
+        
+        InFlight candidate = new InFlight(fingerprint, System.currentTimeMillis());
+        InFlight existing = register(key, candidate);
+        if (existing != null) {
+            checkFingerprint(existing.fingerprint, fingerprint);
+            return await(existing.future);
+        }
+        
+        try {
+            AccountResponse response = executeOnce(key, fingerprint, work, replayApplied);
+            candidate.future.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            // Failed attempts aren't remembered, so the client can retry with the same key
+            inFlight.remove(key, candidate);
+            candidate.future.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${bank.idempotency.purge-interval-millis:3600000}")
+    public void purgeExpiredRecords() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        recordTransactionTemplate.executeWithoutResult(status -> recordRepository.deleteCreatedBefore(cutoff));
+    }
+    
+    // The claim of the idempotent request running on this thread, if any; the group-commit journal carries it
+    // over to its writer thread
+    public Claim currentClaim() {
+        return CURRENT_CLAIM.get();
+    }
+    
+    // Call inside the posting transaction. Returns false if the claim was taken over or released, in which case
+    // the posting must not commit.
+    public boolean markApplied(Claim claim, String transactionId) {
+        return claim == null || recordRepository.markApplied(claim.key(), claim.token(), transactionId) == 1;
+    }
+    
+    public static IdempotencyConflictException claimLost() {
+        return new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+    }
+    
+    private AccountResponse executeOnce(String key, String fingerprint, Supplier<AccountResponse> work,
+                                        Supplier<AccountResponse> replayApplied) {
+        IdempotencyRecord stored = recordRepository.findByIdempotencyKey(key).orElse(null);
+        Claim claim = stored != null ? takeOverStale(stored, fingerprint) : claim(key, fingerprint);
+        if (claim == null) {
+            // Lost the race for the key, or the claim is still held: read what the other request left
+            IdempotencyRecord current = stored != null && stored.getStatus() != IdempotencyStatus.PENDING
+                    ? stored
+                    : recordRepository.findByIdempotencyKey(key).orElseThrow(IdempotencyService::claimLost);
+            return replay(current, fingerprint, replayApplied);
+        }
+        
+        AccountResponse response;
+        CURRENT_CLAIM.set(claim);
+        try {
+            response = work.get();
+        } catch (RuntimeException ex) {
+            release(claim);
+            throw ex;
+        } finally {
+            CURRENT_CLAIM.remove();
+        }
+        
+        try {
+            String responseBody = toJson(response);
+            recordTransactionTemplate.executeWithoutResult(status ->
+                    recordRepository.markCompleted(key, claim.token(), responseBody, LocalDateTime.now()));
+        } catch (RuntimeException ex) {
+            // The money has moved and the record is APPLIED, so retries are answered by replayApplied instead
+            completeFailures.increment();
+            log.warn("Unable to store the response for idempotency key {}", key, ex);
+        }
+        return response;
+    }
+    
+    // Null if another request claimed the key first
+    private Claim claim(String key, String fingerprint) {
+        Claim claim = new Claim(key, UUID.randomUUID().toString());
+        try {
+            recordTransactionTemplate.executeWithoutResult(status -> recordRepository.save(IdempotencyRecord.builder()
+                    .idempotencyKey(key)
+                    .fingerprint(fingerprint)
+                    .status(IdempotencyStatus.PENDING)
+                    .claimToken(claim.token())
+                    .createdAt(LocalDateTime.now())
+                    .build()));
+            return claim;
+        } catch (DataIntegrityViolationException ex) {
+            return null;
+        }
+    }
+    
+    // A PENDING claim older than the timeout belongs to a request that died before posting: nothing was applied,
+    // since APPLIED commits with the posting, so the retry may run it. A holder that is merely slow is fenced off
+    // because its markApplied no longer matches the token.
+    private Claim takeOverStale(IdempotencyRecord stored, String fingerprint) {
+        checkFingerprint(stored.getFingerprint(), fingerprint);
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.getStatus() != IdempotencyStatus.PENDING || !stored.getCreatedAt().isBefore(now.minusSeconds(pendingTimeoutSeconds))) {
+            return null;
+        }
+        
+        Claim claim = new Claim(stored.getIdempotencyKey(), UUID.randomUUID().toString());
+        Integer updated = recordTransactionTemplate.execute(status -> recordRepository.takeOver(
+                claim.key(), stored.getClaimToken(), claim.token(), now, now.minusSeconds(pendingTimeoutSeconds)));
+        return updated != null && updated == 1 ? claim : null;
+    }
+    
+    // Frees the key for a retry unless the posting committed before the failure (a response lost after commit)
+    private void release(Claim claim) {
+        try {
+            recordTransactionTemplate.executeWithoutResult(status ->
+                    recordRepository.deletePending(claim.key(), claim.token()));
+        } catch (RuntimeException ex) {
+            // The claim stays PENDING and is taken over by a retry after pending-timeout-seconds
+            releaseFailures.increment();
+            log.warn("Unable to release idempotency key {}", claim.key(), ex);
+        }
+    }
+    
+    private AccountResponse replay(IdempotencyRecord stored, String fingerprint, Supplier<AccountResponse> replayApplied) {
+        checkFingerprint(stored.getFingerprint(), fingerprint);
+        if (stored.getStatus() == IdempotencyStatus.PENDING) {
+            throw claimLost();
+        }
+        if (stored.getStatus() == IdempotencyStatus.APPLIED) {
+            return replayApplied.get();
+        }
+        try {
+            return objectMapper.readValue(stored.getResponseBody(), AccountResponse.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", ex);
+        }
+    }
+    
+    private void checkFingerprint(String storedFingerprint, String fingerprint) {
+        if (!storedFingerprint.equals(fingerprint)) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+        }
+    }
+    
+    private InFlight register(String key, InFlight candidate) {
+        if (inFlight.size() >= cacheMaxSize) {
+            evictExpired();
+        }
+        
+        InFlight[] existing = new InFlight[1];
+        inFlight.compute(key, (k, current) -> {
+            if (current != null && !current.isExpired(cacheTtlMillis)) {
+                existing[0] = current;
+                return current;
+            }
+            return candidate;
+        });
+        return existing[0];
+    }
+    
+    private void evictExpired() {
+        inFlight.values().removeIf(entry -> entry.isExpired(cacheTtlMillis));
+    }
+    
+    private AccountResponse await(CompletableFuture<AccountResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+    
+    private String fingerprint(String operation, Object request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return operation + ":" + Base64.getEncoder().encodeToString(hash);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to fingerprint request", ex);
+        }
+    }
+    
+    private String toJson(AccountResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to store idempotent response", ex);
+        }
+    }
+    
+    private Long getCurrentUserId() {
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        return user.getId();
+    }
+    
+    public record Claim(String key, String token) {
+    }
+    
+    // Completed entries stay for the TTL so quick retries never reach the database
+    private static final class InFlight {
+        private final String fingerprint;
+        private final long createdAtMillis;
+        private final CompletableFuture<AccountResponse> future = new CompletableFuture<>();
+        
+        private InFlight(String fingerprint, long createdAtMillis) {
+            this.fingerprint = fingerprint;
+            this.createdAtMillis = createdAtMillis;
+        }
+        
+        private boolean isExpired(long ttlMillis) {
+            return future.isDone() && System.currentTimeMillis() - createdAtMillis > ttlMillis;
+        }
+    }
+}
\ No newline at end of file
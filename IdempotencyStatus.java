@@ -0,0 +1,8 @@
+package com.example.bank.model;
+
+public enum IdempotencyStatus {
+    PENDING,
+    // The posting committed, but its response wasn't stored
+    APPLIED,
+    COMPLETED
+}
\ No newline at end of file
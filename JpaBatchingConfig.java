@@ -0,0 +1,23 @@
+package com.example.bank.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+// Lets Hibernate group the inserts/updates of a unit of work into JDBC batches
+@Configuration
+public class JpaBatchingConfig implements HibernatePropertiesCustomizer {
+    @Value("${bank.jpa.batch-size:50}")
+    private int batchSize;
+    
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put("hibernate.jdbc.batch_size", batchSize);
+        hibernateProperties.put("hibernate.order_inserts", true);
+        hibernateProperties.put("hibernate.order_updates", true);
+        // Account carries @Version, which disables update batching unless this is on
+        hibernateProperties.put("hibernate.jdbc.batch_versioned_data", true);
+    }
+}
\ No newline at end of file
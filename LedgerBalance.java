@@ -0,0 +1,9 @@
+package com.example.bank.repository;
+
+import java.math.BigDecimal;
+
+// An account's append-only ledger balance: the snapshot plus its unfolded entries
+public interface LedgerBalance {
+    Long getId();
+    BigDecimal getBalance();
+}
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.Transaction;
+import com.example.bankingapi.repository.AccountRepository;
+import com.example.bankingapi.repository.AccountView;
+import com.example.bankingapi.repository.LedgerBalance;
+import com.example.bankingapi.repository.TransactionRepository;
+import com.example.bankingapi.service.lock.AccountLockStrategy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+// Single place where money movements are posted.
+//
+// Balance mode (default): Account.balance is updated in place and every entry is written already folded into it.
+// Append-only mode (bank.ledger.append-only=true): postings only insert unfolded Transaction entries; the balance
+// is Account.balance (the last snapshot) plus the unfolded entries, and LedgerSnapshotter folds them periodically.
+// Credits then never touch the account row; debits still lock the debited account to check the balance. The
+// debited accounts' ledger balances are read once per transaction and kept current in memory by post(): reading
+// them again would query the transactions table, which makes Hibernate flush the pending inserts first.
+// In balance mode, credits to hot accounts go to HotAccountBalances slots instead of the account row.
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+    private static final Object LEDGER_BALANCES = new Object();
+    
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountLockStrategy accountLockStrategy;
+    private final HotAccountBalances hotAccountBalances;
+    private final AccountMonthlyStatsRecorder monthlyStatsRecorder;
+    private final OutboxService outboxService;
+    private final IdempotencyService idempotencyService;
+    private final EntityManager entityManager;
+    
+    @Value("${bank.ledger.append-only:false}")
+    private boolean appendOnly;
+    
+    public boolean isAppendOnly() {
+        return appendOnly;
+    }
+    
+    // Runs the unit of work under the lock strategy, locking only the accounts whose rows it will contend on
+    public <T> T execute(Collection<String> debited, Collection<String> credited, Supplier<T> work) {
+        return accountLockStrategy.execute(lockedAccountNumbers(debited, credited), work);
+    }
+    
+    // Loads every account of a unit of work; call inside the transaction opened by execute()
+    public Map<String, Account> loadAccounts(Collection<String> debited, Collection<String> credited) {
+        Map<String, Account> accounts = new HashMap<>(accountLockStrategy.lockAccounts(lockedAccountNumbers(debited, credited)));
+        if (appendOnly) {
+            trackLedgerBalances(debited.stream().map(accounts::get).filter(Objects::nonNull).toList());
+        }
+        for (String accountNumber : credited) {
+            if (!accounts.containsKey(accountNumber)) {
+                accountRepository.findByAccountNumber(accountNumber)
+                        .ifPresent(account -> accounts.put(accountNumber, account));
+            }
+        }
+        return accounts;
+    }
+    
+    // Plain reads for callers that don't lock, such as group-commit postings
+    public Map<String, Account> findAccounts(Collection<String> accountNumbers) {
+        Map<String, Account> accounts = new HashMap<>();
+        for (String accountNumber : accountNumbers) {
+            accountRepository.findByAccountNumber(accountNumber)
+                    .ifPresent(account -> accounts.put(accountNumber, account));
+        }
+        return accounts;
+    }
+    
+    // Projections for read paths; the derived-balance query is only paid for when balances can live outside the row
+    public List<AccountView> findAccountViews(Long ownerId) {
+        return derivesBalances()
+                ? accountRepository.findDerivedViewsByUserId(ownerId)
+                : accountRepository.findViewsByUserId(ownerId);
+    }
+    
+    public Optional<AccountView> findAccountView(String accountNumber) {
+        return derivesBalances()
+                ? accountRepository.findDerivedViewByAccountNumber(accountNumber)
+                : accountRepository.findViewByAccountNumber(accountNumber);
+    }
+    
+    public BigDecimal currentBalance(Account account) {
+        if (appendOnly) {
+            Map<Long, BigDecimal> tracked = ledgerBalances();
+            if (tracked == null) {
+                return accountRepository.findLedgerBalance(account.getId());
+            }
+            return tracked.computeIfAbsent(account.getId(), accountRepository::findLedgerBalance);
+        }
+        if (hotAccountBalances.isHot(account.getAccountNumber())) {
+            return hotAccountBalances.currentBalance(account);
+        }
+        return account.getBalance();
+    }
+    
+    public void post(List<Transaction> entries) {
+        // An idempotent request's record becomes APPLIED in this transaction, so it can't outlive or miss the posting
+        if (!idempotencyService.markApplied(idempotencyService.currentClaim(), entries.get(0).getTransactionId())) {
+            throw IdempotencyService.claimLost();
+        }
+        
+        for (Transaction entry : entries) {
+            Account account = entry.getAccount();
+            entry.setFolded(!appendOnly);
+            if (!appendOnly && entry.getAmount().signum() > 0 && creditsSlots(account.getAccountNumber())) {
+                hotAccountBalances.credit(account, entry.getAmount());
+            } else if (!appendOnly) {
+                account.setBalance(account.getBalance().add(entry.getAmount()));
+            } else if (entry.getAmount().signum() < 0) {
+                // Debits don't update the row, so bump its version to keep optimistic locking honest
+                entityManager.lock(account, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            }
+            if (appendOnly) {
+                Map<Long, BigDecimal> tracked = ledgerBalances();
+                if (tracked != null) {
+                    tracked.computeIfPresent(account.getId(), (id, balance) -> balance.add(entry.getAmount()));
+                }
+            }
+        }
+        transactionRepository.saveAll(entries);
+        monthlyStatsRecorder.record(entries);
+        outboxService.record(entries, entries.stream().map(entry -> entry.getAccount().getAccountNumber()).toList());
+    }
+    
+    // One query for every account before the first posting, while nothing is pending
+    private void trackLedgerBalances(List<Account> accounts) {
+        Map<Long, BigDecimal> tracked = ledgerBalances();
+        if (tracked == null || accounts.isEmpty()) {
+            return;
+        }
+        for (LedgerBalance balance : accountRepository.findLedgerBalances(accounts.stream().map(Account::getId).toList())) {
+            tracked.putIfAbsent(balance.getId(), balance.getBalance());
+        }
+    }
+    
+    // Ledger balances known to this transaction; null outside a transaction, where nothing can be kept current
+    @SuppressWarnings("unchecked")
+    private Map<Long, BigDecimal> ledgerBalances() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<Long, BigDecimal> tracked = (Map<Long, BigDecimal>) TransactionSynchronizationManager.getResource(LEDGER_BALANCES);
+        if (tracked == null) {
+            tracked = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(LEDGER_BALANCES, tracked);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LEDGER_BALANCES);
+                }
+            });
+        }
+        return tracked;
+    }
+    
+    private boolean creditsSlots(String accountNumber) {
+        return hotAccountBalances.isHot(accountNumber) && hotAccountBalances.usesSlots(accountNumber);
+    }
+    
+    private boolean derivesBalances() {
+        return appendOnly || !hotAccountBalances.getHotAccountNumbers().isEmpty();
+    }
+    
+    private Collection<String> lockedAccountNumbers(Collection<String> debited, Collection<String> credited) {
+        TreeSet<String> accountNumbers = new TreeSet<>(debited);
+        if (!appendOnly) {
+            // A hot account whose slots aren't there yet is credited on its row, so it's locked in order with the rest
+            for (String accountNumber : credited) {
+                if (!creditsSlots(accountNumber)) {
+                    accountNumbers.add(accountNumber);
+                }
+            }
+        }
+        return accountNumbers;
+    }
+}
\ No newline at end of file
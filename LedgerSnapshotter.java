@@ -0,0 +1,65 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.Transaction;
+import com.example.bankingapi.repository.AccountRepository;
+import com.example.bankingapi.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Folds unfolded ledger entries into Account.balance, which acts as the account's latest balance snapshot
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bank.ledger.append-only", havingValue = "true")
+public class LedgerSnapshotter {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${bank.ledger.snapshot.accounts-per-run:500}")
+    private int accountsPerRun;
+    
+    @Value("${bank.ledger.snapshot.entries-per-account:5000}")
+    private int entriesPerAccount;
+    
+    @Scheduled(fixedDelayString = "${bank.ledger.snapshot.interval-millis:5000}")
+    public void foldEntries() {
+        List<Long> accountIds = transactionRepository.findAccountIdsWithUnfoldedEntries(PageRequest.of(0, accountsPerRun));
+        for (Long accountId : accountIds) {
+            transactionTemplate.executeWithoutResult(status -> fold(accountId));
+        }
+    }
+    
+    private void fold(Long accountId) {
+        // Locking the account serializes with debits, which check the balance under the same lock
+        Account account = accountRepository.findByIdForUpdate(accountId).orElse(null);
+        if (account == null) {
+            return;
+        }
+        
+        // Fold exactly the rows read here; credits committing meanwhile stay unfolded until the next run
+        List<Transaction> entries = transactionRepository.findUnfoldedEntries(accountId, PageRequest.of(0, entriesPerAccount));
+        if (entries.isEmpty()) {
+            return;
+        }
+        
+        BigDecimal delta = BigDecimal.ZERO;
+        List<Long> entryIds = new ArrayList<>(entries.size());
+        for (Transaction entry : entries) {
+            delta = delta.add(entry.getAmount());
+            entryIds.add(entry.getId());
+        }
+        
+        account.setBalance(account.getBalance().add(delta));
+        transactionRepository.markFolded(entryIds);
+    }
+}
\ No newline at end of file
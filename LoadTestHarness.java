@@ -0,0 +1,338 @@
+package com.example.bank.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Boots the application on an in-memory H2 database, seeds users and accounts through the public API and then
+// drives an open-model load: requests start on a Poisson schedule at loadtest.rate per second whether or not
+// earlier ones have finished, and latency is measured from the scheduled start so queueing delay is counted.
+//
+// Options (as --key=value arguments; any bank.* / spring.* property can be passed the same way):
+//   loadtest.users             users seeded, one account each (default 50)
+//   loadtest.initial-balance   deposited into every seeded account (default 10000)
+//   loadtest.rate              arrivals per second (default 200)
+//   loadtest.duration-seconds  length of the measured run (default 60)
+//   loadtest.mix               relative weights (default login=5,balance=40,deposit=20,transfer=25,history=10)
+public class LoadTestHarness {
+    private static final String PASSWORD = "load-test-password";
+    
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    
+    private final List<SeededUser> users = new ArrayList<>();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final LongAdder depositedCents = new LongAdder();
+    // Deposits that timed out or failed with a 5xx may or may not have committed
+    private final LongAdder unknownDepositCents = new LongAdder();
+    
+    private LoadTestHarness(int port) {
+        this.baseUrl = "http://localhost:" + port;
+        for (String endpoint : List.of("login", "balance", "deposit", "transfer", "history")) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (!run(Map.of(), args).conserved()) {
+            System.exit(1);
+        }
+    }
+    
+    // One full run: boot, seed, drive the load, report. Overrides sit between the defaults and the arguments.
+    static Summary run(Map<String, Object> overrides, String... args) throws Exception {
+        Map<String, Object> properties = defaultProperties();
+        properties.putAll(overrides);
+        SpringApplication application = new SpringApplication(LoadTestApplication.class);
+        application.setDefaultProperties(properties);
+        
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            Environment environment = context.getEnvironment();
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestHarness harness = new LoadTestHarness(port);
+            
+            int userCount = environment.getProperty("loadtest.users", Integer.class, 50);
+            BigDecimal initialBalance = environment.getProperty("loadtest.initial-balance", BigDecimal.class, new BigDecimal("10000"));
+            double rate = environment.getProperty("loadtest.rate", Double.class, 200.0);
+            long durationSeconds = environment.getProperty("loadtest.duration-seconds", Long.class, 60L);
+            Map<String, Integer> mix = parseMix(environment.getProperty("loadtest.mix",
+                    "login=5,balance=40,deposit=20,transfer=25,history=10"));
+            
+            harness.seed(userCount, initialBalance);
+            harness.run(rate, durationSeconds, mix);
+            harness.report(durationSeconds);
+            boolean conserved = harness.checkMoneyConserved(initialBalance.multiply(BigDecimal.valueOf(userCount)));
+            return harness.summarize(durationSeconds, conserved);
+        }
+    }
+    
+    private static Map<String, Object> defaultProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("jwt.secret", "bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWxvY2FsLXJ1bnMtb25seQ==");
+        properties.put("jwt.expiration", "86400000");
+        properties.put("logging.level.root", "WARN");
+        return properties;
+    }
+    
+    private void seed(int userCount, BigDecimal initialBalance) throws IOException, InterruptedException {
+        for (int i = 0; i < userCount; i++) {
+            String email = "load-user-" + i + "@example.com";
+            call("POST", "/api/auth/register", null, Map.of(
+                    "firstName", "Load",
+                    "lastName", "User" + i,
+                    "email", email,
+                    "password", PASSWORD
+            ), 200);
+            String token = login(email);
+            
+            JsonNode account = call("POST", "/api/accounts?accountName=Main", token, null, 200);
+            String accountNumber = account.get("accountNumber").asText();
+            call("POST", "/api/accounts/deposit", token, Map.of(
+                    "accountNumber", accountNumber,
+                    "amount", initialBalance
+            ), 200);
+            users.add(new SeededUser(email, new AtomicReference<>(token), accountNumber));
+        }
+        System.out.printf("Seeded %d users with %s each%n", userCount, initialBalance.toPlainString());
+    }
+    
+    private void run(double rate, long durationSeconds, Map<String, Integer> mix) throws InterruptedException {
+        List<String> endpoints = new ArrayList<>(mix.keySet());
+        int[] cumulativeWeights = new int[endpoints.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            totalWeight += mix.get(endpoints.get(i));
+            cumulativeWeights[i] = totalWeight;
+        }
+        
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long next = start;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        while (next < end) {
+            // Exponential inter-arrival times give a Poisson arrival process
+            next += (long) (-Math.log(1.0 - random.nextDouble()) / rate * 1_000_000_000L);
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleep);
+            }
+            
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+            String endpoint = endpoints.get(index);
+            long scheduledAt = next;
+            executor.execute(() -> execute(endpoint, scheduledAt));
+        }
+        
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Requests were still running a minute after the last arrival");
+        }
+    }
+    
+    private void execute(String endpoint, long scheduledAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeededUser user = users.get(random.nextInt(users.size()));
+        EndpointStats endpointStats = stats.get(endpoint);
+        try {
+            switch (endpoint) {
+                case "login" -> user.token().set(login(user.email()));
+                case "balance" -> call("GET", "/api/accounts/" + user.accountNumber(), user.token().get(), null, 200);
+                case "deposit" -> deposit(user, BigDecimal.valueOf(random.nextInt(1, 500)));
+                case "transfer" -> {
+                    SeededUser target = users.get(random.nextInt(users.size()));
+                    if (target == user) {
+                        target = users.get((users.indexOf(user) + 1) % users.size());
+                    }
+                    call("POST", "/api/transactions/transfer", user.token().get(), Map.of(
+                            "fromAccountNumber", user.accountNumber(),
+                            "toAccountNumber", target.accountNumber(),
+                            "amount", BigDecimal.valueOf(random.nextInt(1, 200))
+                    ), 200);
+                }
+                case "history" -> call("GET", "/api/transactions/account/" + user.accountNumber() + "?size=20",
+                        user.token().get(), null, 200);
+                default -> throw new IllegalArgumentException("Unknown endpoint in mix: " + endpoint);
+            }
+            endpointStats.latencies.add(System.nanoTime() - scheduledAt);
+        } catch (Exception ex) {
+            endpointStats.errors.increment();
+            endpointStats.latencies.add(System.nanoTime() - scheduledAt);
+        }
+    }
+    
+    // Only a 4xx proves the deposit was not applied; a 5xx or a client-side failure leaves the outcome unknown
+    private void deposit(SeededUser user, BigDecimal amount) throws IOException, InterruptedException {
+        long cents = amount.movePointRight(2).longValueExact();
+        try {
+            call("POST", "/api/accounts/deposit", user.token().get(), Map.of(
+                    "accountNumber", user.accountNumber(),
+                    "amount", amount
+            ), 200);
+            depositedCents.add(cents);
+        } catch (UnexpectedStatusException ex) {
+            if (ex.status >= 500) {
+                unknownDepositCents.add(cents);
+            }
+            throw ex;
+        } catch (IOException ex) {
+            unknownDepositCents.add(cents);
+            throw ex;
+        }
+    }
+    
+    private void report(long durationSeconds) {
+        System.out.printf("%n%-10s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors");
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            long[] latencies = entry.getValue().latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (latencies.length == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %10d %10.1f %10.2f %10.2f %10.2f %8d%n",
+                    entry.getKey(),
+                    latencies.length,
+                    latencies.length / (double) durationSeconds,
+                    percentile(latencies, 0.50),
+                    percentile(latencies, 0.99),
+                    percentile(latencies, 0.999),
+                    entry.getValue().errors.sum());
+        }
+    }
+    
+    private Summary summarize(long durationSeconds, boolean conserved) {
+        long[] latencies = stats.values().stream()
+                .flatMap(endpointStats -> endpointStats.latencies.stream())
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        long errors = stats.values().stream().mapToLong(endpointStats -> endpointStats.errors.sum()).sum();
+        return new Summary((latencies.length - errors) / (double) durationSeconds,
+                latencies.length == 0 ? 0 : percentile(latencies, 0.99), errors, conserved);
+    }
+    
+    // Unknown-outcome deposits may each have committed or not, so the total must land between the confirmed
+    // deposits and the confirmed plus unknown ones
+    private boolean checkMoneyConserved(BigDecimal seeded) throws IOException, InterruptedException {
+        BigDecimal expected = seeded.add(BigDecimal.valueOf(depositedCents.sum(), 2));
+        BigDecimal unknown = BigDecimal.valueOf(unknownDepositCents.sum(), 2);
+        BigDecimal actual = BigDecimal.ZERO;
+        for (SeededUser user : users) {
+            JsonNode account = call("GET", "/api/accounts/" + user.accountNumber(), login(user.email()), null, 200);
+            actual = actual.add(account.get("balance").decimalValue());
+        }
+        
+        boolean conserved = actual.compareTo(expected) >= 0 && actual.compareTo(expected.add(unknown)) <= 0;
+        System.out.printf("%nMoney conservation: expected %s (plus up to %s of unknown-outcome deposits), found %s -> %s%n",
+                expected.toPlainString(), unknown.toPlainString(), actual.toPlainString(), conserved ? "OK" : "VIOLATED");
+        return conserved;
+    }
+    
+    private String login(String email) throws IOException, InterruptedException {
+        return call("POST", "/api/auth/login", null, Map.of("email", email, "password", PASSWORD), 200)
+                .get("token").asText();
+    }
+    
+    private JsonNode call(String method, String path, String token, Object body, int expectedStatus)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        request.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new UnexpectedStatusException(method + " " + path, response.statusCode());
+        }
+        return response.body().length == 0 ? null : objectMapper.readTree(response.body());
+    }
+    
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+    
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        Arrays.stream(mix.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .forEach(part -> {
+                    String[] pair = part.split("=");
+                    weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+                });
+        return weights;
+    }
+    
+    record Summary(double requestsPerSecond, double p99Millis, long errors, boolean conserved) {
+    }
+    
+    private record SeededUser(String email, AtomicReference<String> token, String accountNumber) {
+    }
+    
+    private static final class UnexpectedStatusException extends IllegalStateException {
+        private final int status;
+        
+        private UnexpectedStatusException(String request, int status) {
+            super(request + " returned " + status);
+            this.status = status;
+        }
+    }
+    
+    private static final class EndpointStats {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+    }
+    
+    @SpringBootApplication(scanBasePackages = "com.example.bank")
+    @EntityScan("com.example.bank")
+    @EnableJpaRepositories("com.example.bank")
+    public static class LoadTestApplication {
+    }
+}
\ No newline at end of file
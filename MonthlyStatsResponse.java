@@ -0,0 +1,33 @@
+package com.example.bank.dto.response;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Map;
+
+import com.example.bankingapi.model.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlyStatsResponse {
+    private YearMonth month;
+    private BigDecimal inflow;
+    private BigDecimal outflow;
+    private long count;
+    private Map<TransactionType, TypeTotals> byType;
+    
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TypeTotals {
+        private BigDecimal inflow;
+        private BigDecimal outflow;
+        private long count;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.bank.repository;
+
+import com.example.bankingapi.model.TransactionType;
+
+import java.math.BigDecimal;
+
+// One account's entries of one type in one month, aggregated straight from transactions
+public interface MonthlyTotal {
+    Long getAccountId();
+    Integer getPeriodYear();
+    Integer getPeriodMonth();
+    TransactionType getType();
+    BigDecimal getInflow();
+    BigDecimal getOutflow();
+    Long getEntryCount();
+}
\ No newline at end of file
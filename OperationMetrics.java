@@ -0,0 +1,98 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.exception.IdempotencyConflictException;
+import com.example.bankingapi.exception.InsufficientBalanceException;
+import com.example.bankingapi.exception.PermissionDeniedException;
+import com.example.bankingapi.exception.ResourceNotFoundException;
+import com.example.bankingapi.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// bank.operation timers tagged with operation and outcome; the timer's count doubles as the per-outcome counter
+@Component
+@RequiredArgsConstructor
+public class OperationMetrics {
+    public static final String SUCCESS = "success";
+    
+    private final MeterRegistry meterRegistry;
+    
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    
+    public <T, E extends Exception> T record(String operation, Operation<T, E> work) throws E {
+        long start = System.nanoTime();
+        String outcome = SUCCESS;
+        try {
+            return work.run();
+        } catch (Exception ex) {
+            outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            timer(operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    public <E extends Exception> void run(String operation, VoidOperation<E> work) throws E {
+        record(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+    
+    // For sub-steps that aren't timed on their own, such as the items of a batch transfer
+    public void count(String operation, String outcome) {
+        counters.computeIfAbsent(operation + '|' + outcome, key -> Counter.builder("bank.operation.outcomes")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+    
+    public static String outcomeOf(Exception ex) {
+        if (ex instanceof InsufficientBalanceException) {
+            return "insufficient_balance";
+        }
+        if (ex instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (ex instanceof PermissionDeniedException) {
+            return "permission_denied";
+        }
+        if (ex instanceof AuthenticationException) {
+            return "unauthenticated";
+        }
+        if (ex instanceof ServiceOverloadedException) {
+            return "overloaded";
+        }
+        if (ex instanceof IdempotencyConflictException) {
+            return "conflict";
+        }
+        return "error";
+    }
+    
+    private Timer timer(String operation, String outcome) {
+        return timers.computeIfAbsent(operation + '|' + outcome, key -> Timer.builder("bank.operation")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+    
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+        T run() throws E;
+    }
+    
+    @FunctionalInterface
+    public interface VoidOperation<E extends Exception> {
+        void run() throws E;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.bank.service.lock;
+
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// No locks taken; Account.version is checked on flush and the whole unit of work is retried on conflict
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bank.transfer.lock-strategy", havingValue = "optimistic")
+public class OptimisticAccountLockStrategy implements AccountLockStrategy {
+    private final AccountRepository accountRepository;
+    
+    @Value("${bank.transfer.optimistic.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${bank.transfer.optimistic.backoff-millis:5}")
+    private long backoffMillis;
+    
+    @Override
+    public <T> T execute(Collection<String> accountNumbers, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    throw new RuntimeException("Account is busy, please retry the operation");
+                }
+                backoff(attempt);
+            }
+        }
+    }
+    
+    @Override
+    public Map<String, Account> lockAccounts(Collection<String> accountNumbers) {
+        Map<String, Account> accounts = new LinkedHashMap<>();
+        for (String accountNumber : new TreeSet<>(accountNumbers)) {
+            accountRepository.findByAccountNumber(accountNumber)
+                    .ifPresent(account -> accounts.put(accountNumber, account));
+        }
+        return accounts;
+    }
+    
+    private void backoff(int attempt) {
+        // Jittered exponential backoff so retrying writers don't collide again in lockstep
+        long maxDelay = backoffMillis << Math.min(attempt - 1, 6);
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(maxDelay + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying the operation");
+        }
+    }
+}
\ No newline at end of file
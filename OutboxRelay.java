@@ -0,0 +1,122 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.model.OutboxEvent;
+import com.example.bankingapi.model.RelayLease;
+import com.example.bankingapi.repository.OutboxEventRepository;
+import com.example.bankingapi.repository.RelayLeaseRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Drains outbox_events into the EventLog in id order, one batch (one fsync, one delete) per transaction.
+// Delivery is at-least-once: a crash between the append and the commit relays the batch again, so consumers
+// dedupe on eventId. The relay is off unless bank.outbox.relay.enabled=true, and even then only the instance
+// holding the relay_leases row drains: the lease is renewed inside every batch transaction, which keeps the row
+// locked while that batch is written. The lease carries the EventLog's log-id, so once the lease expires only an
+// instance that sees the same log files (shared storage for bank.events.dir) takes over, and every event lands in
+// one log with one sequence of offsets. Instances with another log never relay, so /api/admin/events should be
+// served by instances that see the lease's log.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bank.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+    private static final String LEASE_NAME = "outbox-relay";
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final RelayLeaseRepository relayLeaseRepository;
+    private final EventLog eventLog;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String owner = UUID.randomUUID().toString();
+    
+    @Value("${bank.outbox.relay.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${bank.outbox.relay.lease-millis:10000}")
+    private long leaseMillis;
+    
+    @PostConstruct
+    public void createLease() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!relayLeaseRepository.existsById(LEASE_NAME)) {
+                    // Created already expired, so whichever instance relays first takes it
+                    relayLeaseRepository.save(RelayLease.builder()
+                            .name(LEASE_NAME)
+                            .owner(owner)
+                            .logId(eventLog.getLogId())
+                            .expiresAt(LocalDateTime.now())
+                            .build());
+                } else if (!relayLeaseRepository.findById(LEASE_NAME).orElseThrow().getLogId().equals(eventLog.getLogId())) {
+                    log.warn("The outbox relay lease belongs to another event log; this instance will not relay");
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Created concurrently by another instance
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${bank.outbox.relay.interval-millis:200}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed == batchSize);
+    }
+    
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(Duration.ofMillis(leaseMillis));
+        if (relayLeaseRepository.acquire(LEASE_NAME, owner, eventLog.getLogId(), expiresAt, now) == 0) {
+            return 0;
+        }
+        
+        List<OutboxEvent> batch = outboxEventRepository.findBatch(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        List<byte[]> payloads = new ArrayList<>(batch.size());
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            payloads.add(envelope(event));
+            ids.add(event.getId());
+        }
+        eventLog.append(payloads);
+        outboxEventRepository.deleteByIds(ids);
+        return batch.size();
+    }
+    
+    private byte[] envelope(OutboxEvent event) {
+        ObjectNode envelope = objectMapper.createObjectNode()
+                .put("eventId", event.getId())
+                .put("type", event.getEventType())
+                .put("transactionId", event.getTransactionId())
+                .put("createdAt", event.getCreatedAt().toString());
+        // The payload is already JSON; embed it without parsing it again
+        envelope.putRawValue("entries", new RawValue(event.getPayload()));
+        try {
+            return objectMapper.writeValueAsBytes(envelope);
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException("Unable to serialize event " + event.getId());
+        }
+    }
+}
\ No newline at end of file
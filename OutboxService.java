@@ -0,0 +1,59 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.dto.response.TransactionResponse;
+import com.example.bankingapi.model.OutboxEvent;
+import com.example.bankingapi.model.Transaction;
+import com.example.bankingapi.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes the outbox row for a posting inside the posting's transaction, so an event exists exactly when the
+// entries committed. OutboxRelay moves the rows to the EventLog; nothing else deletes them, so no rows are written
+// unless the relay is enabled.
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${bank.outbox.relay.enabled:false}")
+    private boolean relayEnabled;
+    
+    // Call after the entries are persisted; accountNumbers lines up with entries
+    public void record(List<Transaction> entries, List<String> accountNumbers) {
+        if (!relayEnabled) {
+            return;
+        }
+        
+        List<TransactionResponse> payload = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Transaction entry = entries.get(i);
+            payload.add(new TransactionResponse(entry.getId(), entry.getTransactionId(), entry.getType(),
+                    entry.getAmount(), entry.getDescription(), accountNumbers.get(i),
+                    entry.getDestinationAccountNumber(), entry.getTimestamp()));
+        }
+        
+        Transaction first = entries.get(0);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(first.getType().name())
+                .transactionId(first.getTransactionId())
+                .payload(toJson(payload))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+    
+    private String toJson(List<TransactionResponse> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException("Unable to serialize outbox event");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.bank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+// Primary connections partitioned by bulkhead group: each group draws from its own pool, so exhausting one
+// (a burst of slow history reads, say) can't starve transfers. Threads without a group (see BulkheadContext)
+// use the background pool.
+public class PartitionedDataSource extends AbstractRoutingDataSource implements Closeable {
+    private final Map<BulkheadGroup, HikariDataSource> partitions;
+    private final HikariDataSource background;
+    
+    public PartitionedDataSource(Map<BulkheadGroup, HikariDataSource> partitions, HikariDataSource background) {
+        this.partitions = partitions;
+        this.background = background;
+        setTargetDataSources(new HashMap<>(partitions));
+        setDefaultTargetDataSource(background);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BulkheadContext.current();
+    }
+    
+    @Override
+    public void close() {
+        partitions.values().forEach(HikariDataSource::close);
+        background.close();
+    }
+}
\ No newline at end of file
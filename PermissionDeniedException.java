@@ -0,0 +1,8 @@
+package com.example.bank.exception;
+
+public class PermissionDeniedException extends RuntimeException {
+    
+    public PermissionDeniedException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.bank.service.lock;
+
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+// SELECT ... FOR UPDATE, always taken in account-number order so two transfers can't deadlock
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bank.transfer.lock-strategy", havingValue = "pessimistic", matchIfMissing = true)
+public class PessimisticAccountLockStrategy implements AccountLockStrategy {
+    private final AccountRepository accountRepository;
+    
+    @Override
+    public <T> T execute(Collection<String> accountNumbers, Supplier<T> work) {
+        return work.get();
+    }
+    
+    @Override
+    public Map<String, Account> lockAccounts(Collection<String> accountNumbers) {
+        Map<String, Account> accounts = new LinkedHashMap<>();
+        for (String accountNumber : new TreeSet<>(accountNumbers)) {
+            accountRepository.findByAccountNumberForUpdate(accountNumber)
+                    .ifPresent(account -> accounts.put(accountNumber, account));
+        }
+        return accounts;
+    }
+}
\ No newline at end of file
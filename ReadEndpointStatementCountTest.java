@@ -0,0 +1,154 @@
+package com.example.bank.loadtest;
+
+import com.example.bankingapi.config.StatementCounter;
+import com.example.bankingapi.config.TokenVersionRegistry;
+import com.example.bankingapi.model.User;
+import com.example.bankingapi.repository.AccountRepository;
+import com.example.bankingapi.repository.AccountView;
+import com.example.bankingapi.repository.UserRepository;
+import com.example.bankingapi.service.StatementFormat;
+import com.example.bankingapi.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pins the number of SQL statements each read endpoint runs, counted by StatementCounter on the request thread.
+// Every account has several transactions, so an N+1 or a lazy load shows up as a changed count.
+@SpringBootTest(classes = LoadTestHarness.LoadTestApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "jwt.secret=bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWxvY2FsLXJ1bnMtb25seQ==",
+        "jwt.expiration=86400000",
+        "logging.level.root=WARN"
+})
+@AutoConfigureMockMvc
+class ReadEndpointStatementCountTest {
+    private static final int DEPOSITS = 5;
+    private static final AtomicInteger USERS = new AtomicInteger();
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    private String token;
+    private String accountNumber;
+    
+    // A fresh user and account per test, so no earlier read has filled the snapshot cache
+    @BeforeEach
+    void setUp() throws Exception {
+        String email = "statement-count-" + USERS.incrementAndGet() + "@example.com";
+        token = call(post("/api/auth/register"), Map.of(
+                "firstName", "Statement",
+                "lastName", "Count",
+                "email", email,
+                "password", "password123"
+        )).get("token").asText();
+        accountNumber = call(post("/api/accounts?accountName=Main"), null).get("accountNumber").asText();
+        for (int i = 0; i < DEPOSITS; i++) {
+            call(post("/api/accounts/deposit"), Map.of("accountNumber", accountNumber, "amount", 100 + i));
+        }
+        
+        // The token version is looked up once per TTL; prime it so it isn't counted against the endpoint
+        User user = userRepository.findByEmail(email).orElseThrow();
+        tokenVersionRegistry.update(user.getId(), user.getTokenVersion());
+    }
+    
+    @Test
+    void listAccountsRunsOneStatementThenNoneFromCache() throws Exception {
+        assertEquals(1, statementsFor("/api/accounts"));
+        assertEquals(0, statementsFor("/api/accounts"));
+    }
+    
+    @Test
+    void getAccountRunsOneStatementThenNoneFromCache() throws Exception {
+        assertEquals(1, statementsFor("/api/accounts/" + accountNumber));
+        assertEquals(0, statementsFor("/api/accounts/" + accountNumber));
+    }
+    
+    // Account view, closing balance of the last rollup, sum of the entries since
+    @Test
+    void balanceAtRunsThreeStatements() throws Exception {
+        assertEquals(3, statementsFor("/api/accounts/" + accountNumber + "/balance"));
+    }
+    
+    // Account view, folded monthly rows, pending deltas
+    @Test
+    void monthlyStatsRunsThreeStatements() throws Exception {
+        assertEquals(3, statementsFor("/api/accounts/" + accountNumber + "/analytics/monthly"));
+    }
+    
+    // Account view, one page of projected rows
+    @Test
+    void transactionHistoryRunsTwoStatements() throws Exception {
+        assertEquals(2, statementsFor("/api/transactions/account/" + accountNumber));
+        assertEquals(2, statementsFor("/api/transactions/account/" + accountNumber + "?size=2"));
+    }
+    
+    // The ownership check runs on the request thread; the rows stream from one query on the async thread
+    @Test
+    void statementExportRunsOneStatementPerPart() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/transactions/account/" + accountNumber + "/statement")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1, StatementCounter.current());
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        
+        AccountView account = accountRepository.findViewByAccountNumber(accountNumber).orElseThrow();
+        StatementCounter.reset();
+        transactionService.writeStatement(account, StatementFormat.CSV, null, null, new ByteArrayOutputStream());
+        assertEquals(1, StatementCounter.current());
+    }
+    
+    private int statementsFor(String uri) throws Exception {
+        mockMvc.perform(get(uri).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        return StatementCounter.current();
+    }
+    
+    private JsonNode call(MockHttpServletRequestBuilder builder, Object body) throws Exception {
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            builder.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+        }
+        MvcResult result = mockMvc.perform(builder).andExpect(status().isOk()).andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
\ No newline at end of file
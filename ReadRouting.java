@@ -0,0 +1,60 @@
+package com.example.bank.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Decides where a connection comes from when a replica is configured (bank.datasource.replica.enabled=true).
+// A read-only transaction goes to the replica only on a request thread that ReadYourWritesInterceptor allowed
+// (a GET from a user with no recent write) and while ReplicaLagMonitor reports the replica fresh. Everything
+// else uses the primary, including the read-only transactions Spring Data opens around repository reads in
+// filters, authentication and background jobs.
+@Component
+public class ReadRouting {
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+    private static final ThreadLocal<DataSourceRoute> LAST_ROUTE = new ThreadLocal<>();
+    
+    private final ObjectProvider<ReplicaLagMonitor> lagMonitor;
+    private final boolean enabled;
+    
+    public ReadRouting(
+            ObjectProvider<ReplicaLagMonitor> lagMonitor,
+            @Value("${bank.datasource.replica.enabled:false}") boolean enabled
+    ) {
+        this.lagMonitor = lagMonitor;
+        this.enabled = enabled;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    // Called by RoutingDataSource when the transaction first touches the database
+    public DataSourceRoute route() {
+        DataSourceRoute route = DataSourceRoute.PRIMARY;
+        if (enabled && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && Boolean.TRUE.equals(REPLICA_ALLOWED.get())) {
+            ReplicaLagMonitor monitor = lagMonitor.getIfAvailable();
+            if (monitor != null && monitor.isReplicaFresh()) {
+                route = DataSourceRoute.REPLICA;
+            }
+        }
+        LAST_ROUTE.set(route);
+        return route;
+    }
+    
+    // True if this thread's last connection came from the replica, so what it just read may be slightly stale
+    public boolean readsFromReplica() {
+        return LAST_ROUTE.get() == DataSourceRoute.REPLICA;
+    }
+    
+    public void allowReplicaReads() {
+        REPLICA_ALLOWED.set(Boolean.TRUE);
+    }
+    
+    public void clear() {
+        REPLICA_ALLOWED.remove();
+        LAST_ROUTE.remove();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.bank.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Lets GET requests read from the replica, except for read-your-writes: after a user's successful write, that
+// user's requests stay on the primary for max-lag-millis. The replica is only used while its lag is below that,
+// so by then it has the write. Write times are kept per instance; a user bouncing between instances may still
+// see a stale replica read.
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    private final ReadRouting readRouting;
+    private final long stickinessMillis;
+    private final Map<Long, Long> lastWriteMillis = new ConcurrentHashMap<>();
+    
+    public ReadYourWritesInterceptor(
+            ReadRouting readRouting,
+            @Value("${bank.datasource.replica.max-lag-millis:2000}") long stickinessMillis
+    ) {
+        this.readRouting = readRouting;
+        this.stickinessMillis = stickinessMillis;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!readRouting.isEnabled() || !isSafeMethod(request.getMethod())) {
+            return true;
+        }
+        Long userId = currentUserId();
+        Long lastWrite = userId != null ? lastWriteMillis.get(userId) : null;
+        if (lastWrite == null || System.currentTimeMillis() - lastWrite >= stickinessMillis) {
+            readRouting.allowReplicaReads();
+        }
+        return true;
+    }
+    
+    // An async request (a statement export) gets this instead of afterCompletion on the thread that started it;
+    // without it the replica flag would stay on the pooled thread for whatever request it serves next
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        readRouting.clear();
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        readRouting.clear();
+        if (!readRouting.isEnabled() || isSafeMethod(request.getMethod()) || response.getStatus() >= 400) {
+            return;
+        }
+        Long userId = currentUserId();
+        if (userId != null) {
+            lastWriteMillis.put(userId, System.currentTimeMillis());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${bank.datasource.replica.stickiness-purge-millis:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - stickinessMillis;
+        lastWriteMillis.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+    
+    private static boolean isSafeMethod(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+    
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.bank.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Which instance may write a relay's output; it keeps the lease by renewing it before expiresAt.
+// logId pins the lease to one output: only instances writing to that same log can take it over.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "relay_leases")
+public class RelayLease {
+    @Id
+    private String name;
+    
+    @Column(nullable = false)
+    private String owner;
+    
+    @Column(nullable = false)
+    private String logId;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.bank.repository;
+
+import com.example.bankingapi.model.RelayLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RelayLeaseRepository extends JpaRepository<RelayLease, String> {
+    
+    // Renews the lease for its owner, or takes it over once expired; 0 if another instance holds it or the
+    // caller writes to a different log
+    @Modifying
+    @Query("UPDATE RelayLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+            "WHERE l.name = :name AND l.logId = :logId AND (l.owner = :owner OR l.expiresAt < :now)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("logId") String logId,
+                @Param("expiresAt") LocalDateTime expiresAt,
+                @Param("now") LocalDateTime now);
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.bank.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Measures replica lag with a heartbeat row: each check writes the current time to the primary and reads back
+// what the replica has. Lag is therefore over-estimated by up to one check interval. While it exceeds
+// max-lag-millis, or the replica can't be read, read-only transactions fall back to the primary.
+@Component
+@ConditionalOnProperty(name = "bank.datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    
+    private volatile long lagMillis = Long.MAX_VALUE;
+    
+    public ReplicaLagMonitor(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${bank.datasource.replica.max-lag-millis:2000}") long maxLagMillis,
+            MeterRegistry meterRegistry
+    ) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.maxLagMillis = maxLagMillis;
+        Gauge.builder("bank.datasource.replica.lag", this, monitor -> monitor.lagMillis == Long.MAX_VALUE ? Double.NaN : monitor.lagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void createHeartbeat() {
+        primary.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+    }
+    
+    @Scheduled(fixedDelayString = "${bank.datasource.replica.lag-check-millis:500}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException ex) {
+            // The primary being down is not the replica's problem; keep the last measurement
+            return;
+        }
+        try {
+            Long replicaBeat = replica.queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+            lagMillis = replicaBeat != null ? Math.max(0, now - replicaBeat) : Long.MAX_VALUE;
+        } catch (DataAccessException ex) {
+            lagMillis = Long.MAX_VALUE;
+        }
+    }
+    
+    public boolean isReplicaFresh() {
+        return lagMillis <= maxLagMillis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.example.bank.loadtest;
+
+import com.example.bankingapi.config.ReplicaLagMonitor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Read/write routing against two in-memory H2 databases. H2 has no replication, so the "replica" is refreshed
+// with SCRIPT / RUNSCRIPT and the lag check is run by hand, which lets each test set exactly how far behind it is.
+// Reads go to the transaction history, which the account snapshot cache doesn't answer.
+@SpringBootTest(classes = LoadTestHarness.LoadTestApplication.class, properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "bank.datasource.replica.enabled=true",
+        "bank.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "bank.datasource.replica.max-lag-millis=" + ReplicaRoutingTest.MAX_LAG_MILLIS,
+        "bank.datasource.replica.lag-check-millis=3600000",
+        "jwt.secret=bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWxvY2FsLXJ1bnMtb25seQ==",
+        "jwt.expiration=86400000",
+        "logging.level.root=WARN"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:replica-routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing-replica;DB_CLOSE_DELAY=-1";
+    static final long MAX_LAG_MILLIS = 500;
+    private static final AtomicInteger USERS = new AtomicInteger();
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    
+    private String token;
+    private String accountNumber;
+    
+    // A fresh user with one deposit of 100; the deposit keeps that user on the primary for MAX_LAG_MILLIS
+    @BeforeEach
+    void setUp() throws Exception {
+        token = call(post("/api/auth/register"), Map.of(
+                "firstName", "Replica",
+                "lastName", "Routing",
+                "email", "replica-routing-" + USERS.incrementAndGet() + "@example.com",
+                "password", "password123"
+        )).get("token").asText();
+        accountNumber = call(post("/api/accounts?accountName=Main"), null).get("accountNumber").asText();
+        call(post("/api/accounts/deposit"), Map.of("accountNumber", accountNumber, "amount", 100));
+    }
+    
+    @Test
+    void getFromUserWithoutRecentWriteReadsReplica() throws Exception {
+        Thread.sleep(MAX_LAG_MILLIS + 100);
+        catchUpReplica();
+        
+        assertEquals(new Read("replica", new BigDecimal("100.00")), readHistory());
+    }
+    
+    @Test
+    void getRightAfterOwnWriteReadsPrimary() throws Exception {
+        Thread.sleep(MAX_LAG_MILLIS + 100);
+        catchUpReplica();
+        call(post("/api/accounts/deposit"), Map.of("accountNumber", accountNumber, "amount", 50));
+        
+        assertEquals(new Read("primary", new BigDecimal("150.00")), readHistory());
+    }
+    
+    // The deposit of 50 never reaches the replica; once the user is no longer sticky the lag check alone keeps
+    // reads on the primary
+    @Test
+    void getWhileReplicaLagsFallsBackToPrimary() throws Exception {
+        catchUpReplica();
+        call(post("/api/accounts/deposit"), Map.of("accountNumber", accountNumber, "amount", 50));
+        Thread.sleep(MAX_LAG_MILLIS + 100);
+        replicaLagMonitor.check();
+        
+        assertEquals(new Read("primary", new BigDecimal("150.00")), readHistory());
+    }
+    
+    // Writes a heartbeat, copies the primary (heartbeat row included) into the replica and measures the lag again
+    private void catchUpReplica() throws Exception {
+        replicaLagMonitor.check();
+        Path script = Files.createTempFile("replica-routing", ".sql");
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement primaryStatement = primary.createStatement();
+             Statement replicaStatement = replica.createStatement()) {
+            primaryStatement.execute("SCRIPT TO '" + script.toAbsolutePath() + "'");
+            replicaStatement.execute("DROP ALL OBJECTS");
+            replicaStatement.execute("RUNSCRIPT FROM '" + script.toAbsolutePath() + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+        replicaLagMonitor.check();
+    }
+    
+    // The route is "replica" if any connection for the request came from the replica pool
+    private Read readHistory() throws Exception {
+        double replicaBefore = routeCount("replica");
+        JsonNode page = call(get("/api/transactions/account/" + accountNumber + "?size=50"), null);
+        
+        BigDecimal sum = BigDecimal.ZERO;
+        for (JsonNode transaction : page.get("transactions")) {
+            sum = sum.add(transaction.get("amount").decimalValue());
+        }
+        return new Read(routeCount("replica") > replicaBefore ? "replica" : "primary", sum.setScale(2));
+    }
+    
+    private double routeCount(String route) {
+        return meterRegistry.get("bank.datasource.route").tag("route", route).counter().count();
+    }
+    
+    private JsonNode call(MockHttpServletRequestBuilder builder, Object body) throws Exception {
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            builder.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+        }
+        MvcResult result = mockMvc.perform(builder).andExpect(status().isOk()).andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+    
+    private record Read(String route, BigDecimal historySum) {
+    }
+}
\ No newline at end of file
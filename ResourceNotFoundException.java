@@ -0,0 +1,8 @@
+package com.example.bank.exception;
+
+public class ResourceNotFoundException extends RuntimeException {
+    
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
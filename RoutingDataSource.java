@@ -0,0 +1,34 @@
+package com.example.bank.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Picks the primary or replica pool per physical connection; wrapped in a LazyConnectionDataSourceProxy so the
+// choice is made after the transaction's read-only flag is known
+public class RoutingDataSource extends AbstractRoutingDataSource {
+    private final ReadRouting readRouting;
+    private final Map<DataSourceRoute, Counter> routeCounters = new EnumMap<>(DataSourceRoute.class);
+    
+    public RoutingDataSource(DataSource primary, DataSource replica, ReadRouting readRouting, MeterRegistry meterRegistry) {
+        this.readRouting = readRouting;
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        for (DataSourceRoute route : DataSourceRoute.values()) {
+            routeCounters.put(route, Counter.builder("bank.datasource.route")
+                    .tag("route", route.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceRoute route = readRouting.route();
+        routeCounters.get(route).increment();
+        return route;
+    }
+}
\ No newline at end of file
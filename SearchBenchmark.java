@@ -0,0 +1,165 @@
+package com.example.bank.loadtest;
+
+import com.example.bankingapi.dto.request.TransactionSearchRequest;
+import com.example.bankingapi.dto.response.TransactionPageResponse;
+import com.example.bankingapi.model.TransactionType;
+import com.example.bankingapi.service.TransactionSearchService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Latency of the admin transaction search on a large transactions table. Needs a throwaway PostgreSQL database
+// (the seed writes straight into the tables and draws ids from transaction_seq):
+//
+//   --spring.datasource.url=jdbc:postgresql://localhost/searchbench --spring.datasource.username=... --spring.datasource.password=...
+//
+// Options:
+//   searchbench.rows         transactions seeded if the table holds fewer (default 10000000)
+//   searchbench.accounts     accounts the rows are spread over (default 100000)
+//   searchbench.iterations   measured runs per scenario, after as many warm-up runs (default 200)
+public class SearchBenchmark {
+    private static final String SEED_PREFIX = "SB";
+    private static final int SEED_CHUNK = 1_000_000;
+    
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(LoadTestHarness.LoadTestApplication.class);
+        application.setDefaultProperties(defaultProperties());
+        
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            Environment environment = context.getEnvironment();
+            long rows = environment.getProperty("searchbench.rows", Long.class, 10_000_000L);
+            int accounts = environment.getProperty("searchbench.accounts", Integer.class, 100_000);
+            int iterations = environment.getProperty("searchbench.iterations", Integer.class, 200);
+            
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            seed(jdbcTemplate, rows, accounts);
+            
+            TransactionSearchService searchService = context.getBean(TransactionSearchService.class);
+            System.out.printf("%n%-28s %10s %10s %10s%n", "scenario", "p50 ms", "p99 ms", "max ms");
+            scenarios(accounts).forEach((name, request) -> measure(name, iterations, () -> searchService.search(request.get())));
+            measure("type, 20 pages deep", Math.max(iterations / 20, 1), () -> {
+                TransactionSearchRequest request = search(r -> r.setType(TransactionType.TRANSFER));
+                TransactionPageResponse page = null;
+                for (int i = 0; i < 20; i++) {
+                    page = searchService.search(request);
+                    request.setCursor(page.getNextCursor());
+                }
+                return page;
+            });
+        }
+    }
+    
+    private static Map<String, Object> defaultProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.jpa.hibernate.ddl-auto", "update");
+        properties.put("jwt.secret", "bG9hZC10ZXN0LXNlY3JldC1rZXktZm9yLWxvY2FsLXJ1bnMtb25seQ==");
+        properties.put("jwt.expiration", "86400000");
+        properties.put("logging.level.root", "WARN");
+        return properties;
+    }
+    
+    private static Map<String, Supplier<TransactionSearchRequest>> scenarios(int accounts) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Supplier<TransactionSearchRequest>> scenarios = new LinkedHashMap<>();
+        scenarios.put("account, last 30 days", () -> search(r -> {
+            r.setAccountNumber(accountNumber(1 + (int) (Math.random() * accounts)));
+            r.setFrom(now.minusDays(30));
+        }));
+        scenarios.put("counterparty", () -> search(r -> r.setCounterparty(accountNumber(1 + (int) (Math.random() * accounts)))));
+        scenarios.put("type, last 7 days", () -> search(r -> {
+            r.setType(TransactionType.DEPOSIT);
+            r.setFrom(now.minusDays(7));
+        }));
+        scenarios.put("amount range", () -> search(r -> {
+            r.setMinAmount(new BigDecimal("4990"));
+            r.setMaxAmount(new BigDecimal("5000"));
+        }));
+        // Description alone is only accepted within a bounded window
+        scenarios.put("description prefix, last 30 days", () -> search(r -> {
+            r.setDescription("rent payment 0a");
+            r.setFrom(now.minusDays(30));
+            r.setTo(now);
+        }));
+        scenarios.put("description contains, last 30 days", () -> search(r -> {
+            r.setDescription(Integer.toHexString(0x1000 + (int) (Math.random() * 0xefff)));
+            r.setDescriptionContains(true);
+            r.setFrom(now.minusDays(30));
+            r.setTo(now);
+        }));
+        return scenarios;
+    }
+    
+    private static TransactionSearchRequest search(Consumer<TransactionSearchRequest> filters) {
+        TransactionSearchRequest request = new TransactionSearchRequest();
+        request.setSize(50);
+        filters.accept(request);
+        return request;
+    }
+    
+    private static void measure(String name, int iterations, Supplier<?> work) {
+        for (int i = 0; i < iterations; i++) {
+            work.get();
+        }
+        long[] latencies = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            work.get();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-28s %10.2f %10.2f %10.2f%n", name,
+                latencies[(int) (iterations * 0.50)] / 1_000_000.0,
+                latencies[Math.min((int) (iterations * 0.99), iterations - 1)] / 1_000_000.0,
+                latencies[iterations - 1] / 1_000_000.0);
+    }
+    
+    private static void seed(JdbcTemplate jdbcTemplate, long rows, int accounts) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+        if (existing != null && existing >= rows) {
+            System.out.printf("Using %d existing transactions%n", existing);
+            return;
+        }
+        
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name, role, token_version) " +
+                "VALUES ('search-bench@example.com', 'unused', 'Search', 'Bench', 'USER', 0) ON CONFLICT DO NOTHING");
+        jdbcTemplate.update("INSERT INTO accounts (account_number, account_name, balance, user_id, created_at, version) " +
+                "SELECT ? || lpad(g::text, 8, '0'), 'Bench', 0, " +
+                "(SELECT id FROM users WHERE email = 'search-bench@example.com'), now() - interval '2 years', 0 " +
+                "FROM generate_series(1, ?) g ON CONFLICT DO NOTHING", SEED_PREFIX, accounts);
+        Long firstAccountId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM accounts WHERE account_number LIKE ?", Long.class, SEED_PREFIX + "%");
+        
+        long start = System.nanoTime();
+        for (long from = (existing != null ? existing : 0) + 1; from <= rows; from += SEED_CHUNK) {
+            long to = Math.min(from + SEED_CHUNK - 1, rows);
+            // Spread over a year, three types, +/- amounts up to 5000 and descriptions with a random hex tail
+            jdbcTemplate.update("INSERT INTO transactions (id, transaction_id, type, amount, description, account_id, " +
+                    "destination_account_number, timestamp, folded) " +
+                    "SELECT nextval('transaction_seq'), 'SB-' || g, (ARRAY['DEPOSIT', 'WITHDRAWAL', 'TRANSFER'])[1 + g % 3], " +
+                    "round((random() * 5000)::numeric, 2) * CASE WHEN g % 2 = 0 THEN 1 ELSE -1 END, " +
+                    "(ARRAY['Salary', 'Rent payment', 'Groceries', 'Invoice', 'Refund'])[1 + g % 5] || ' ' || md5(g::text), " +
+                    "? + g % ?, ? || lpad(((g * 7) % ? + 1)::text, 8, '0'), " +
+                    "now() - (g % 31536000) * interval '1 second', true " +
+                    "FROM generate_series(?, ?) g",
+                    firstAccountId, accounts, SEED_PREFIX, accounts, from, to);
+            System.out.printf("Seeded %d / %d transactions%n", to, rows);
+        }
+        jdbcTemplate.execute("ANALYZE transactions");
+        System.out.printf("Seeding took %d s%n", (System.nanoTime() - start) / 1_000_000_000L);
+    }
+    
+    private static String accountNumber(int index) {
+        return SEED_PREFIX + String.format("%08d", index);
+    }
+}
\ No newline at end of file
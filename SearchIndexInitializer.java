@@ -0,0 +1,44 @@
+package com.example.bank.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Description search indexes that JPA's @Index can't express. Only created on PostgreSQL; elsewhere description
+// filters fall back to scanning within whatever the other filters select. Built CONCURRENTLY so writes keep flowing.
+@Component
+@RequiredArgsConstructor
+public class SearchIndexInitializer {
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${bank.search.description-indexes.enabled:true}")
+    private boolean enabled;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void createDescriptionIndexes() {
+        if (!enabled || !isPostgres()) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_description_prefix " +
+                "ON transactions (lower(description) text_pattern_ops)");
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (DataAccessException ex) {
+            // Creating extensions needs elevated privileges; contains-search still works, just without the index
+            return;
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_description_trgm " +
+                "ON transactions USING gin (lower(description) gin_trgm_ops)");
+    }
+    
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
\ No newline at end of file
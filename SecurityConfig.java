@@ -1,6 +1,8 @@
 package com.example.bank.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,6 +24,20 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${bank.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+    
+    // 0 = one hashing thread per CPU core
+    @Value("${bank.security.bcrypt.pool-size:0}")
+    private int hashingPoolSize;
+    
+    @Value("${bank.security.bcrypt.queue-capacity:64}")
+    private int hashingQueueCapacity;
+    
+    @Value("${bank.security.bcrypt.max-wait-millis:2000}")
+    private long hashingMaxWaitMillis;
     
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -29,6 +45,10 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                // Metrics expose endpoint, account and timing detail: scrape with an admin bearer token
+                .requestMatchers("/actuator/prometheus").hasAuthority("ADMIN")
+                .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -55,6 +75,13 @@ public class SecurityConfig {
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int poolSize = hashingPoolSize > 0 ? hashingPoolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(bcryptStrength),
+                poolSize,
+                hashingQueueCapacity,
+                hashingMaxWaitMillis,
+                meterRegistry
+        );
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.bank.exception;
+
+// Raised when a bounded resource is saturated; mapped to 503 with a Retry-After header
+public class ServiceOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+    
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
\ No newline at end of file
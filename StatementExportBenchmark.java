@@ -0,0 +1,128 @@
+package com.example.bank.benchmark;
+
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.User;
+import com.example.bankingapi.repository.AccountRepository;
+import com.example.bankingapi.repository.AccountView;
+import com.example.bankingapi.service.StatementFormat;
+import com.example.bankingapi.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Exports a statement of 10k, 100k and 1M rows and samples the live heap (after a full GC) ten times while it
+// streams. The export holds no per-row state if the peak stays flat as the row count grows; the fork's small
+// -Xmx makes a regression fail outright. The database is an H2 file, so the seeded rows aren't on the heap.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class StatementExportBenchmark {
+    private static final int SAMPLES = 10;
+    private static final String SEED_ROWS = "INSERT INTO transactions " +
+            "(id, transaction_id, type, amount, description, account_id, timestamp, folded) " +
+            "SELECT X, 'TXN' || X, 'DEPOSIT', 1.00, 'Statement benchmark deposit', ?, " +
+            "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), TRUE FROM SYSTEM_RANGE(1, ?)";
+    
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+    
+    private Path databaseDirectory;
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private AccountView account;
+    private HeapSamplingOutputStream output;
+    
+    @Setup
+    public void setUp() throws IOException {
+        databaseDirectory = Files.createTempDirectory("statement-benchmark");
+        context = BenchmarkContext.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:file:" + databaseDirectory.resolve("bank").toAbsolutePath()));
+        transactionService = context.getBean(TransactionService.class);
+        
+        User owner = BenchmarkContext.seedUser(context, "statement");
+        Account seeded = BenchmarkContext.seedAccount(context, owner, BigDecimal.valueOf(rows));
+        context.getBean(JdbcTemplate.class).update(SEED_ROWS, seeded.getId(), rows);
+        account = context.getBean(AccountRepository.class).findViewByAccountNumber(seeded.getAccountNumber())
+                .orElseThrow();
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(databaseDirectory);
+    }
+    
+    @Setup(Level.Iteration)
+    public void newOutput() {
+        output = new HeapSamplingOutputStream(Math.max(1, rows / SAMPLES));
+    }
+    
+    @TearDown(Level.Iteration)
+    public void report() {
+        if (output.lines != rows) {
+            throw new IllegalStateException("Exported " + output.lines + " of " + rows + " rows");
+        }
+        System.out.printf("%n%d rows: peak live heap while streaming %.1f MB%n", rows, output.peakLiveHeap / 1048576.0);
+    }
+    
+    @Benchmark
+    public void exportNdjson() throws IOException {
+        transactionService.writeStatement(account, StatementFormat.NDJSON, null, null, output);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StatementExportBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+    
+    // Discards the statement, counting its lines and measuring the live heap every `interval` lines
+    private static final class HeapSamplingOutputStream extends OutputStream {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long interval;
+        private long lines;
+        private long peakLiveHeap;
+        
+        private HeapSamplingOutputStream(long interval) {
+            this.interval = interval;
+        }
+        
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % interval == 0) {
+                sample();
+            }
+        }
+        
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+        
+        private void sample() {
+            System.gc();
+            peakLiveHeap = Math.max(peakLiveHeap, memory.getHeapMemoryUsage().getUsed());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.bank.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatsBackfillResponse {
+    private int chunks;
+    private long rowsWritten;
+    private long elapsedMillis;
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.bank.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Size-bounded LRU map for the per-request caches in this package: access-ordered LinkedHashMaps striped by key
+// hash, each behind its own lock. A full stripe drops its least recently used entry, so every put is O(1).
+final class StripedLruMap<K, V> {
+    private static final int STRIPES = 16;
+    
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final List<Map<K, V>> maps = new ArrayList<>(STRIPES);
+    
+    StripedLruMap(int maxEntries) {
+        int stripeCapacity = Math.max(1, maxEntries / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            maps.add(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > stripeCapacity;
+                }
+            });
+        }
+    }
+    
+    V get(K key) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            return maps.get(stripe).get(key);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+    
+    void put(K key, V value) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            maps.get(stripe).put(key, value);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+    
+    void remove(K key) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            maps.get(stripe).remove(key);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+    
+    void remove(K key, V value) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            maps.get(stripe).remove(key, value);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+    
+    private int stripe(K key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+}
\ No newline at end of file
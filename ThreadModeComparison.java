@@ -0,0 +1,42 @@
+package com.example.bank.loadtest;
+
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// Runs LoadTestHarness once per thread mode and HikariCP pool size and prints one line per run, so platform
+// and virtual threads can be compared at the same arrival rate. Each run gets a fresh application and database.
+//
+// Options (as --key=value arguments, in addition to everything LoadTestHarness accepts):
+//   loadtest.pool-sizes   spring.datasource.hikari.maximum-pool-size values to try (default 5,10,20,40)
+// Pick a loadtest.rate above what the smallest pool sustains, or every run will just keep up with arrivals.
+public class ThreadModeComparison {
+    
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        String poolSizes = options.containsProperty("loadtest.pool-sizes")
+                ? options.getProperty("loadtest.pool-sizes")
+                : "5,10,20,40";
+        
+        List<String> rows = new ArrayList<>();
+        int run = 0;
+        for (String poolSize : Arrays.stream(poolSizes.split(",")).map(String::trim).toList()) {
+            for (boolean virtual : new boolean[]{false, true}) {
+                LoadTestHarness.Summary summary = LoadTestHarness.run(Map.of(
+                        "bank.threads.virtual.enabled", virtual,
+                        "spring.datasource.hikari.maximum-pool-size", poolSize,
+                        "spring.datasource.url", "jdbc:h2:mem:thread-mode-" + run++ + ";DB_CLOSE_DELAY=-1"
+                ), args);
+                rows.add(String.format("%-9s %6s %10.1f %10.2f %8d %10s",
+                        virtual ? "virtual" : "platform", poolSize, summary.requestsPerSecond(), summary.p99Millis(),
+                        summary.errors(), summary.conserved() ? "OK" : "VIOLATED"));
+            }
+        }
+        
+        System.out.printf("%n%-9s %6s %10s %10s %8s %10s%n", "threads", "pool", "req/s", "p99 ms", "errors", "money");
+        rows.forEach(System.out::println);
+    }
+}
\ No newline at end of file
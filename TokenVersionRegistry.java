@@ -0,0 +1,49 @@
+package com.example.bank.config;
+
+import com.example.bankingapi.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Tracks each user's current token version. Bumping User.tokenVersion revokes every token issued before it.
+// Versions are cached briefly, so a revocation made on another node is seen within the TTL. The cache is capped
+// at jwt.token-version.cache-max-entries; expired versions are reloaded when read or age out as least recently used.
+@Component
+public class TokenVersionRegistry {
+    private final UserRepository userRepository;
+    private final long cacheTtlNanos;
+    private final StripedLruMap<Long, CachedVersion> versions;
+    
+    public TokenVersionRegistry(
+            UserRepository userRepository,
+            @Value("${jwt.token-version.cache-ttl-seconds:60}") long cacheTtlSeconds,
+            @Value("${jwt.token-version.cache-max-entries:10000}") int cacheMaxEntries
+    ) {
+        this.userRepository = userRepository;
+        this.cacheTtlNanos = TimeUnit.SECONDS.toNanos(cacheTtlSeconds);
+        this.versions = new StripedLruMap<>(cacheMaxEntries);
+    }
+    
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.nanoTime();
+        CachedVersion cached = versions.get(userId);
+        if (cached == null || now - cached.loadedAt() > cacheTtlNanos) {
+            Integer current = userRepository.findTokenVersionById(userId).orElse(null);
+            if (current == null) {
+                versions.remove(userId);
+                return false;
+            }
+            cached = new CachedVersion(current, now);
+            versions.put(userId, cached);
+        }
+        return cached.version() == tokenVersion;
+    }
+    
+    public void update(Long userId, int tokenVersion) {
+        versions.put(userId, new CachedVersion(tokenVersion, System.nanoTime()));
+    }
+    
+    private record CachedVersion(int version, long loadedAt) {
+    }
+}
\ No newline at end of file
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,10 +16,21 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_ts_id", columnList = "account_id, timestamp DESC, id DESC"),
+        @Index(name = "idx_transactions_unfolded", columnList = "folded, account_id"),
+        @Index(name = "idx_transactions_timestamp", columnList = "timestamp"),
+        // Admin search filters; description indexes are Postgres expression indexes, see SearchIndexInitializer
+        @Index(name = "idx_transactions_destination_ts", columnList = "destination_account_number, timestamp"),
+        @Index(name = "idx_transactions_type_ts", columnList = "type, timestamp"),
+        // min/max amount are ranges, so this only bounds the rows read; the matches are still sorted by timestamp
+        @Index(name = "idx_transactions_amount", columnList = "amount")
+})
 public class Transaction {
+    // Sequence ids (pre-allocated in blocks) so inserts can be JDBC-batched; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -30,7 +43,9 @@ public class Transaction {
     
     private String description;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "account_id")
     private Account account;
     
@@ -40,6 +55,11 @@ public class Transaction {
     @Column(nullable = false)
     private LocalDateTime timestamp;
     
+    // False while the amount is not yet reflected in Account.balance (append-only ledger mode)
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "boolean default true")
+    private boolean folded = true;
+    
     @PrePersist
     protected void onCreate() {
         timestamp = LocalDateTime.now();
@@ -1,29 +1,85 @@
 package com.example.bank.controller;
 
+import com.example.bankingapi.dto.request.BatchTransferRequest;
 import com.example.bankingapi.dto.request.TransferRequest;
 import com.example.bankingapi.dto.response.AccountResponse;
-import com.example.bankingapi.dto.response.TransactionResponse;
+import com.example.bankingapi.dto.response.BatchTransferResponse;
+import com.example.bankingapi.dto.response.TransactionPageResponse;
+import com.example.bankingapi.repository.AccountView;
+import com.example.bankingapi.service.AccountService;
+import com.example.bankingapi.service.IdempotencyService;
+import com.example.bankingapi.service.StatementFormat;
 import com.example.bankingapi.service.TransactionService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/transactions")
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final AccountService accountService;
+    private final IdempotencyService idempotencyService;
+    
+    // Exports stream for as long as a large account takes; the timeout applies to this endpoint only, other async
+    // requests keep the container default
+    @Value("${bank.statement.export-timeout-millis:600000}")
+    private long exportTimeoutMillis;
     
     @PostMapping("/transfer")
-    public ResponseEntity<AccountResponse> transfer(@Valid @RequestBody TransferRequest request) {
-        return ResponseEntity.ok(transactionService.transfer(request));
+    public ResponseEntity<AccountResponse> transfer(
+            @Valid @RequestBody TransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, "transfer", request,
+                () -> transactionService.transfer(request),
+                () -> accountService.getPostedAccount(request.getFromAccountNumber())));
+    }
+    
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResponse> transferBatch(@Valid @RequestBody BatchTransferRequest request) {
+        return ResponseEntity.ok(transactionService.transferBatch(request));
     }
     
     @GetMapping("/account/{accountNumber}")
-    public ResponseEntity<List<TransactionResponse>> getAccountTransactions(@PathVariable String accountNumber) {
-        return ResponseEntity.ok(transactionService.getAccountTransactions(accountNumber));
+    public ResponseEntity<TransactionPageResponse> getAccountTransactions(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(transactionService.getAccountTransactions(accountNumber, cursor, size));
+    }
+    
+    @GetMapping("/account/{accountNumber}/statement")
+    public WebAsyncTask<Void> exportStatement(
+            HttpServletResponse response,
+            @PathVariable String accountNumber,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        StatementFormat statementFormat = StatementFormat.from(format);
+        // Ownership is checked up front so errors still produce a normal JSON response
+        AccountView account = transactionService.getStatementAccount(accountNumber);
+        
+        response.setContentType(MediaType.parseMediaType(statementFormat.getContentType()).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"statement-" + accountNumber + "." + statementFormat.getExtension() + "\"");
+        
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            transactionService.writeStatement(account, statementFormat, from, to, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.bank.benchmark;
+
+import com.example.bankingapi.service.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Throughput of the transaction id generator alone and with every core issuing ids at once, where the CAS
+// on its single state word is the contention point. The generator needs no Spring wiring beyond its node id.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionIdBenchmark {
+    private final TransactionIdGenerator generator = new TransactionIdGenerator(1);
+    
+    @Benchmark
+    @Threads(1)
+    public long nextId() {
+        return generator.nextId();
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long nextIdContended() {
+        return generator.nextId();
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String nextTransactionIdContended() {
+        return generator.nextTransactionId();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TransactionIdBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.example.bank.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake-style 64-bit ids: 41 bits of milliseconds since EPOCH, 10 bits of node id, 12 bits of sequence.
+// Ids are unique per node id and strictly increasing within a node; issuing one is a single CAS.
+@Component
+public class TransactionIdGenerator {
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    // Base-36 width of the largest positive long, so rendered ids sort in issue order
+    private static final int RENDERED_WIDTH = 13;
+    
+    private final long nodeId;
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+    
+    public TransactionIdGenerator(@Value("${bank.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("bank.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+    
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH;
+            
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // Same millisecond, or the clock moved backwards: keep counting on the last timestamp
+                next = current + 1;
+            } else {
+                // Sequence exhausted: borrow the next millisecond instead of waiting for the clock
+                next = (lastTimestamp + 1) << SEQUENCE_BITS;
+            }
+            
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return timestamp << (NODE_BITS + SEQUENCE_BITS)
+                        | nodeId << SEQUENCE_BITS
+                        | next & SEQUENCE_MASK;
+            }
+        }
+    }
+    
+    public String nextTransactionId() {
+        String encoded = Long.toString(nextId(), 36).toUpperCase();
+        return "TXN" + "0".repeat(RENDERED_WIDTH - encoded.length()) + encoded;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.example.bank.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many threads drawing ids from shared generators at full speed: far more ids per millisecond than the
+// 12-bit sequence holds, so the borrowed-millisecond path is exercised too.
+class TransactionIdGeneratorStressTest {
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 200_000;
+    
+    @Test
+    void idsAreUniqueAndIncreasingPerThreadAcrossNodes() throws Exception {
+        List<TransactionIdGenerator> nodes = List.of(new TransactionIdGenerator(1), new TransactionIdGenerator(2));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                TransactionIdGenerator generator = nodes.get(t % nodes.size());
+                Callable<long[]> draw = () -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                results.add(executor.submit(draw));
+            }
+            start.countDown();
+            
+            Set<Long> seen = new HashSet<>(THREADS * IDS_PER_THREAD * 2);
+            for (Future<long[]> result : results) {
+                long[] ids = result.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(seen.add(ids[i]), "duplicate id " + ids[i]);
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1], "id went backwards on one thread");
+                    }
+                }
+            }
+            assertEquals(THREADS * IDS_PER_THREAD, seen.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void renderedIdsSortInIssueOrder() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(1023);
+        String previous = generator.nextTransactionId();
+        for (int i = 0; i < 100_000; i++) {
+            String next = generator.nextTransactionId();
+            assertTrue(next.compareTo(previous) > 0, next + " sorts before " + previous);
+            previous = next;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.bank.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionPageResponse {
+    private List<TransactionResponse> transactions;
+    // Opaque cursor to pass back for the next (older) page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
\ No newline at end of file
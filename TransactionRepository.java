@@ -1,13 +1,93 @@
 package com.example.bank.repository;
 
+import com.example.bankingapi.dto.response.TransactionResponse;
 import com.example.bankingapi.model.Account;
 import com.example.bankingapi.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByAccountOrderByTimestampDesc(Account account);
+    
+    // Read paths select straight into TransactionResponse: one statement, nothing attached to the persistence context
+    String TRANSACTION_RESPONSE = "SELECT new com.example.bank.dto.response.TransactionResponse(" +
+            "t.id, t.transactionId, t.type, t.amount, t.description, t.account.accountNumber, " +
+            "t.destinationAccountNumber, t.timestamp) FROM Transaction t ";
+    
+    // Keyset pagination, served by idx_transactions_account_ts_id
+    @Query(TRANSACTION_RESPONSE + "WHERE t.account.id = :accountId ORDER BY t.timestamp DESC, t.id DESC")
+    List<TransactionResponse> findFirstPage(@Param("accountId") Long accountId, Pageable pageable);
+    
+    @Query(TRANSACTION_RESPONSE + "WHERE t.account.id = :accountId " +
+            "AND (t.timestamp < :timestamp OR (t.timestamp = :timestamp AND t.id < :id)) " +
+            "ORDER BY t.timestamp DESC, t.id DESC")
+    List<TransactionResponse> findPageBefore(
+            @Param("accountId") Long accountId,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+    
+    // Cursor-backed statement export: rows are fetched from the driver in chunks instead of materialized as a list
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TRANSACTION_RESPONSE + "WHERE t.account.id = :accountId " +
+            "AND t.timestamp >= :from AND t.timestamp < :to " +
+            "ORDER BY t.timestamp, t.id")
+    Stream<TransactionResponse> streamStatement(
+            @Param("accountId") Long accountId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+    
+    // Point-in-time balances: the deltas after the last daily rollup, served by idx_transactions_account_ts_id
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.account.id = :accountId " +
+            "AND t.timestamp >= :from AND t.timestamp <= :to")
+    BigDecimal sumAmountsBetween(
+            @Param("accountId") Long accountId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+    
+    // Daily rollup input, served by idx_transactions_timestamp
+    @Query("SELECT t.account.id AS accountId, SUM(t.amount) AS total FROM Transaction t " +
+            "WHERE t.timestamp >= :from AND t.timestamp < :to GROUP BY t.account.id")
+    List<AccountTotal> sumByAccountBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Monthly statistics backfill for a range of account ids
+    @Query("SELECT t.account.id AS accountId, YEAR(t.timestamp) AS periodYear, MONTH(t.timestamp) AS periodMonth, " +
+            "t.type AS type, SUM(CASE WHEN t.amount >= 0 THEN t.amount ELSE 0 END) AS inflow, " +
+            "SUM(CASE WHEN t.amount < 0 THEN -t.amount ELSE 0 END) AS outflow, COUNT(t) AS entryCount " +
+            "FROM Transaction t WHERE t.account.id BETWEEN :fromId AND :toId " +
+            "GROUP BY t.account.id, YEAR(t.timestamp), MONTH(t.timestamp), t.type")
+    List<MonthlyTotal> sumByAccountMonthAndType(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    @Query("SELECT MIN(t.timestamp) FROM Transaction t")
+    Optional<LocalDateTime> findFirstTimestamp();
+    
+    @Query("SELECT DISTINCT t.account.id FROM Transaction t WHERE t.folded = false")
+    List<Long> findAccountIdsWithUnfoldedEntries(Pageable pageable);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId AND t.folded = false ORDER BY t.id")
+    List<Transaction> findUnfoldedEntries(@Param("accountId") Long accountId, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE Transaction t SET t.folded = true WHERE t.id IN :ids")
+    int markFolded(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.bank.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.bankingapi.model.TransactionType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionResponse {
+    private Long id;
+    private String transactionId;
+    private TransactionType type;
+    private BigDecimal amount;
+    private String description;
+    private String accountNumber;
+    private String destinationAccount;
+    private LocalDateTime timestamp;
+}
\ No newline at end of file
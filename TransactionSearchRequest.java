@@ -0,0 +1,42 @@
+package com.example.bank.dto.request;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.example.bankingapi.model.TransactionType;
+
+import lombok.Data;
+
+// Query parameters of the admin transaction search; every filter is optional but at least one is required
+@Data
+public class TransactionSearchRequest {
+    private String accountNumber;
+    
+    // Matched against destinationAccountNumber
+    private String counterparty;
+    
+    private TransactionType type;
+    
+    // Amounts are signed: credits are positive and debits negative, so minAmount=100 matches credits of 100 or
+    // more and no debits. Debits of 100 or more are maxAmount=-100.
+    private BigDecimal minAmount;
+    
+    private BigDecimal maxAmount;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+    
+    // Case-insensitive; a prefix match unless descriptionContains is set
+    private String description;
+    
+    private boolean descriptionContains;
+    
+    private String cursor;
+    
+    private Integer size;
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.example.bank.service;
+
+import com.example.bankingapi.dto.request.TransactionSearchRequest;
+import com.example.bankingapi.dto.response.TransactionPageResponse;
+import com.example.bankingapi.dto.response.TransactionResponse;
+import com.example.bankingapi.exception.ResourceNotFoundException;
+import com.example.bankingapi.model.Account;
+import com.example.bankingapi.model.Transaction;
+import com.example.bankingapi.repository.AccountRepository;
+import com.example.bankingapi.repository.AccountView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.example.bankingapi.repository.TransactionSpecifications.*;
+
+// Support-staff search across all accounts. Filters compose into one WHERE clause, results come back newest first
+// as TransactionResponse projections, and paging is by keyset, so a deep page costs the same as the first.
+// Page size is capped and each query runs under a timeout, so an unselective search can't run away.
+// A description match is only selective together with another filter: on its own it needs a bounded date window.
+@Service
+public class TransactionSearchService {
+    private final AccountRepository accountRepository;
+    private final EntityManager entityManager;
+    private final OperationMetrics operationMetrics;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int timeoutMillis;
+    private final long descriptionWindowDays;
+    
+    public TransactionSearchService(
+            AccountRepository accountRepository,
+            EntityManager entityManager,
+            OperationMetrics operationMetrics,
+            @Value("${bank.search.default-page-size:50}") int defaultPageSize,
+            @Value("${bank.search.max-page-size:200}") int maxPageSize,
+            @Value("${bank.search.timeout-millis:2000}") int timeoutMillis,
+            @Value("${bank.search.description-window-days:31}") long descriptionWindowDays
+    ) {
+        this.accountRepository = accountRepository;
+        this.entityManager = entityManager;
+        this.operationMetrics = operationMetrics;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.timeoutMillis = timeoutMillis;
+        this.descriptionWindowDays = descriptionWindowDays;
+    }
+    
+    @Transactional(readOnly = true)
+    public TransactionPageResponse search(TransactionSearchRequest request) {
+        return operationMetrics.record("transaction.search", () -> runSearch(request));
+    }
+    
+    private TransactionPageResponse runSearch(TransactionSearchRequest request) {
+        Specification<Transaction> filters = filtersFor(request);
+        int pageSize = Math.min(Math.max(request.getSize() != null ? request.getSize() : defaultPageSize, 1), maxPageSize);
+        
+        TransactionCursor position = request.getCursor() != null ? TransactionCursor.decode(request.getCursor()) : null;
+        if (position != null) {
+            filters = filters.and(olderThan(position.timestamp(), position.id()));
+        }
+        
+        // Fetch one extra row to know whether another page exists
+        List<TransactionResponse> rows = query(filters, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        String nextCursor = null;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+            TransactionResponse last = rows.get(rows.size() - 1);
+            nextCursor = new TransactionCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        
+        return TransactionPageResponse.builder()
+                .transactions(rows)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    private Specification<Transaction> filtersFor(TransactionSearchRequest request) {
+        Long accountId = null;
+        if (request.getAccountNumber() != null) {
+            accountId = accountRepository.findViewByAccountNumber(request.getAccountNumber())
+                    .map(AccountView::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        }
+        
+        String description = request.getDescription() != null && !request.getDescription().isBlank()
+                ? request.getDescription().trim()
+                : null;
+        if (description != null && request.isDescriptionContains() && description.length() < 3) {
+            throw new RuntimeException("Description search needs at least 3 characters");
+        }
+        
+        boolean narrowed = accountId != null || request.getCounterparty() != null || request.getType() != null
+                || request.getMinAmount() != null || request.getMaxAmount() != null;
+        if (!narrowed && request.getFrom() == null && request.getTo() == null && description == null) {
+            throw new RuntimeException("At least one search filter is required");
+        }
+        // Otherwise every match would be read and sorted by timestamp; the window lets the timestamp index bound it
+        if (!narrowed && description != null && (request.getFrom() == null || request.getTo() == null
+                || request.getTo().isAfter(request.getFrom().plusDays(descriptionWindowDays)))) {
+            throw new RuntimeException("A description search without other filters needs from and to at most "
+                    + descriptionWindowDays + " days apart");
+        }
+        
+        return Specification.where(forAccount(accountId))
+                .and(withCounterparty(request.getCounterparty()))
+                .and(ofType(request.getType()))
+                .and(amountAtLeast(request.getMinAmount()))
+                .and(amountAtMost(request.getMaxAmount()))
+                .and(onOrAfter(request.getFrom()))
+                .and(before(request.getTo()))
+                .and(request.isDescriptionContains() ? descriptionContains(description) : descriptionStartsWith(description));
+    }
+    
+    private List<TransactionResponse> query(Specification<Transaction> filters, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionResponse> query = cb.createQuery(TransactionResponse.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        Join<Transaction, Account> account = root.join("account");
+        
+        query.select(cb.construct(TransactionResponse.class,
+                root.get("id"),
+                root.get("transactionId"),
+                root.get("type"),
+                root.get("amount"),
+                root.get("description"),
+                account.get("accountNumber"),
+                root.get("destinationAccountNumber"),
+                root.get("timestamp")));
+        Predicate where = filters.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(cb.desc(root.get("timestamp")), cb.desc(root.get("id")));
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint("jakarta.persistence.query.timeout", timeoutMillis)
+                .getResultList();
+    }
+}
\ No newline at end of file
@@ -1,59 +1,249 @@
 package com.example.bank.service;
 
+import com.example.bankingapi.config.AuthenticatedUser;
+import com.example.bankingapi.dto.request.BatchTransferRequest;
 import com.example.bankingapi.dto.request.TransferRequest;
 import com.example.bankingapi.dto.response.AccountResponse;
+import com.example.bankingapi.dto.response.BatchTransferResponse;
+import com.example.bankingapi.dto.response.TransactionPageResponse;
 import com.example.bankingapi.dto.response.TransactionResponse;
+import com.example.bankingapi.dto.response.TransferResult;
 import com.example.bankingapi.model.Account;
 import com.example.bankingapi.model.Transaction;
 import com.example.bankingapi.model.TransactionType;
-import com.example.bankingapi.model.User;
-import com.example.bankingapi.repository.AccountRepository;
+import com.example.bankingapi.repository.AccountView;
 import com.example.bankingapi.repository.TransactionRepository;
+import com.example.bankingapi.exception.InsufficientBalanceException;
+import com.example.bankingapi.exception.PermissionDeniedException;
+import com.example.bankingapi.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
-    private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
+    private final LedgerService ledgerService;
+    private final GroupCommitJournal groupCommitJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final AccountSnapshotCache accountSnapshotCache;
+    private final ObjectMapper objectMapper;
+    private final OperationMetrics operationMetrics;
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final LocalDateTime STATEMENT_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String CSV_HEADER = "transactionId,type,amount,description,accountNumber,destinationAccount,timestamp\n";
     
-    @Transactional
     public AccountResponse transfer(TransferRequest request) {
-        // Validate accounts
-        Account fromAccount = findAccountByNumber(request.getFromAccountNumber());
-        Account toAccount = findAccountByNumber(request.getToAccountNumber());
+        return operationMetrics.record("transaction.transfer", () -> postTransfer(request));
+    }
+    
+    private AccountResponse postTransfer(TransferRequest request) {
+        if (groupCommitJournal.isEnabled()) {
+            return transferViaJournal(request);
+        }
         
-        // Security check: only owner can transfer from their account
-        User currentUser = getCurrentUser();
-        if (!fromAccount.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("You don't have permission to transfer from this account");
+        return ledgerService.execute(
+                List.of(request.getFromAccountNumber()),
+                List.of(request.getToAccountNumber()),
+                () -> transactionTemplate.execute(status -> doTransfer(request))
+        );
+    }
+    
+    private AccountResponse doTransfer(TransferRequest request) {
+        // Validate accounts, locking them in a fixed order
+        Map<String, Account> accounts = ledgerService.loadAccounts(
+                List.of(request.getFromAccountNumber()), List.of(request.getToAccountNumber()));
+        
+        String transactionId = transactionIdGenerator.nextTransactionId();
+        applyTransfer(request, accounts, getCurrentUserId(), transactionId);
+        accountSnapshotCache.evictAccountsAfterCommit(
+                List.of(request.getFromAccountNumber(), request.getToAccountNumber()));
+        
+        // Built from the locked row: the snapshot cache is only refreshed once this transaction commits
+        return accountService.mapToResponse(accounts.get(request.getFromAccountNumber()));
+    }
+    
+    private AccountResponse transferViaJournal(TransferRequest request) {
+        Map<String, Account> accounts = ledgerService.findAccounts(
+                List.of(request.getFromAccountNumber(), request.getToAccountNumber()));
+        
+        String transactionId = transactionIdGenerator.nextTransactionId();
+        groupCommitJournal.post(prepareTransfer(request, accounts, getCurrentUserId(), transactionId));
+        
+        // Through a projection: the managed Account loaded above doesn't see the journal writer's bulk UPDATEs
+        return accountService.getPostedAccount(request.getFromAccountNumber());
+    }
+    
+    public BatchTransferResponse transferBatch(BatchTransferRequest request) {
+        return operationMetrics.record("transaction.transfer-batch", () -> postTransferBatch(request));
+    }
+    
+    private BatchTransferResponse postTransferBatch(BatchTransferRequest request) {
+        if (groupCommitJournal.isEnabled()) {
+            return transferBatchViaJournal(request.getTransfers());
+        }
+        
+        Set<String> debited = new TreeSet<>();
+        Set<String> credited = new TreeSet<>();
+        for (TransferRequest transfer : request.getTransfers()) {
+            debited.add(transfer.getFromAccountNumber());
+            credited.add(transfer.getToAccountNumber());
+        }
+        
+        return ledgerService.execute(
+                debited,
+                credited,
+                () -> transactionTemplate.execute(status -> doTransferBatch(request.getTransfers(), debited, credited))
+        );
+    }
+    
+    private BatchTransferResponse doTransferBatch(List<TransferRequest> transfers, Set<String> debited, Set<String> credited) {
+        // One transaction for the whole batch: every account is locked once, up front, in a fixed order
+        Map<String, Account> accounts = ledgerService.loadAccounts(debited, credited);
+        Long currentUserId = getCurrentUserId();
+        
+        Set<String> touchedAccounts = new TreeSet<>();
+        List<TransferResult> results = new ArrayList<>(transfers.size());
+        int succeeded = 0;
+        
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            TransferResult.TransferResultBuilder result = TransferResult.builder()
+                    .index(i)
+                    .fromAccountNumber(transfer.getFromAccountNumber())
+                    .toAccountNumber(transfer.getToAccountNumber())
+                    .amount(transfer.getAmount());
+            
+            // A failed item is rejected before any balance is touched, so it doesn't affect the rest of the batch
+            try {
+                String transactionId = transactionIdGenerator.nextTransactionId();
+                applyTransfer(transfer, accounts, currentUserId, transactionId);
+                touchedAccounts.add(transfer.getFromAccountNumber());
+                touchedAccounts.add(transfer.getToAccountNumber());
+                results.add(result.success(true).transactionId(transactionId).build());
+                operationMetrics.count("transaction.transfer-batch.item", OperationMetrics.SUCCESS);
+                succeeded++;
+            } catch (RuntimeException ex) {
+                results.add(result.success(false).message(ex.getMessage()).build());
+                operationMetrics.count("transaction.transfer-batch.item", OperationMetrics.outcomeOf(ex));
+            }
+        }
+        
+        // Inserts and balance updates are flushed as JDBC batches at commit (see JpaBatchingConfig)
+        accountSnapshotCache.evictAccountsAfterCommit(touchedAccounts);
+        
+        return BatchTransferResponse.builder()
+                .succeeded(succeeded)
+                .failed(transfers.size() - succeeded)
+                .results(results)
+                .build();
+    }
+    
+    private BatchTransferResponse transferBatchViaJournal(List<TransferRequest> transfers) {
+        Map<String, Account> accounts = ledgerService.findAccounts(transfers.stream()
+                .flatMap(transfer -> Stream.of(transfer.getFromAccountNumber(), transfer.getToAccountNumber()))
+                .collect(Collectors.toCollection(TreeSet::new)));
+        Long currentUserId = getCurrentUserId();
+        
+        // Submit every valid item first so the whole batch can share one journal commit
+        List<TransferResult.TransferResultBuilder> results = new ArrayList<>(transfers.size());
+        List<CompletableFuture<Void>> postings = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            TransferResult.TransferResultBuilder result = TransferResult.builder()
+                    .index(i)
+                    .fromAccountNumber(transfer.getFromAccountNumber())
+                    .toAccountNumber(transfer.getToAccountNumber())
+                    .amount(transfer.getAmount());
+            results.add(result);
+            
+            try {
+                String transactionId = transactionIdGenerator.nextTransactionId();
+                postings.add(groupCommitJournal.submit(prepareTransfer(transfer, accounts, currentUserId, transactionId)));
+                result.transactionId(transactionId);
+            } catch (RuntimeException ex) {
+                postings.add(CompletableFuture.failedFuture(ex));
+            }
+        }
+        
+        int succeeded = 0;
+        List<TransferResult> responses = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferResult.TransferResultBuilder result = results.get(i);
+            try {
+                GroupCommitJournal.await(postings.get(i));
+                responses.add(result.success(true).build());
+                operationMetrics.count("transaction.transfer-batch.item", OperationMetrics.SUCCESS);
+                succeeded++;
+            } catch (RuntimeException ex) {
+                responses.add(result.success(false).transactionId(null).message(ex.getMessage()).build());
+                operationMetrics.count("transaction.transfer-batch.item", OperationMetrics.outcomeOf(ex));
+            }
         }
         
+        return BatchTransferResponse.builder()
+                .succeeded(succeeded)
+                .failed(transfers.size() - succeeded)
+                .results(responses)
+                .build();
+    }
+    
+    // Validates the transfer and posts it between the already-loaded accounts.
+    // Nothing is modified unless every check passes.
+    private void applyTransfer(TransferRequest request, Map<String, Account> accounts,
+                               Long currentUserId, String transactionId) {
+        List<Transaction> entries = prepareTransfer(request, accounts, currentUserId, transactionId);
+        
         // Check sufficient balance
-        if (fromAccount.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new RuntimeException("Insufficient balance");
+        if (ledgerService.currentBalance(entries.get(0).getAccount()).compareTo(request.getAmount()) < 0) {
+            throw new InsufficientBalanceException();
         }
         
         // Perform transfer
-        fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
-        toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
+        ledgerService.post(entries);
+    }
+    
+    // Checks everything but the balance and builds the debit and credit entries, without touching anything
+    private List<Transaction> prepareTransfer(TransferRequest request, Map<String, Account> accounts,
+                                              Long currentUserId, String transactionId) {
+        if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+            throw new RuntimeException("Cannot transfer to the same account");
+        }
         
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
+        Account fromAccount = getLockedAccount(accounts, request.getFromAccountNumber());
+        Account toAccount = getLockedAccount(accounts, request.getToAccountNumber());
         
-        // Create transaction records
-        String transactionId = generateTransactionId();
+        // Security check: only owner can transfer from their account
+        if (!fromAccount.getUser().getId().equals(currentUserId)) {
+            throw new PermissionDeniedException("You don't have permission to transfer from this account");
+        }
         
         // Debit transaction for sender
         Transaction debitTransaction = Transaction.builder()
@@ -77,52 +267,125 @@ public class TransactionService {
                 .timestamp(LocalDateTime.now())
                 .build();
         
-        transactionRepository.save(debitTransaction);
-        transactionRepository.save(creditTransaction);
+        return List.of(debitTransaction, creditTransaction);
+    }
+    
+    @Transactional(readOnly = true)
+    public TransactionPageResponse getAccountTransactions(String accountNumber, String cursor, int size) {
+        return operationMetrics.record("transaction.history", () -> loadTransactionPage(accountNumber, cursor, size));
+    }
+    
+    private TransactionPageResponse loadTransactionPage(String accountNumber, String cursor, int size) {
+        AccountView account = findOwnedAccount(accountNumber);
+        
+        // Fetch one extra row to know whether another page exists
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<TransactionResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findFirstPage(account.getId(), limit);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findPageBefore(account.getId(), position.timestamp(), position.id(), limit);
+        }
+        
+        boolean hasMore = rows.size() > pageSize;
+        String nextCursor = null;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+            TransactionResponse last = rows.get(rows.size() - 1);
+            nextCursor = new TransactionCursor(last.getTimestamp(), last.getId()).encode();
+        }
         
-        return accountService.getAccount(request.getFromAccountNumber());
+        return TransactionPageResponse.builder()
+                .transactions(rows)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    @Transactional(readOnly = true)
+    public AccountView getStatementAccount(String accountNumber) {
+        return operationMetrics.record("transaction.statement-account", () -> findOwnedAccount(accountNumber));
+    }
+    
+    @Transactional(readOnly = true)
+    public void writeStatement(AccountView account, StatementFormat format, LocalDateTime from, LocalDateTime to,
+                               OutputStream outputStream) throws IOException {
+        operationMetrics.run("transaction.statement", () -> streamStatement(account, format, from, to, outputStream));
     }
     
-    public List<TransactionResponse> getAccountTransactions(String accountNumber) {
-        Account account = findAccountByNumber(accountNumber);
+    private void streamStatement(AccountView account, StatementFormat format, LocalDateTime from, LocalDateTime to,
+                                 OutputStream outputStream) throws IOException {
+        LocalDateTime start = from != null ? from : STATEMENT_START;
+        LocalDateTime end = to != null ? to : LocalDateTime.now().plusSeconds(1);
         
-        // Security check
-        User currentUser = getCurrentUser();
-        if (!account.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("You don't have permission to view these transactions");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == StatementFormat.CSV) {
+            writer.write(CSV_HEADER);
         }
         
-        return transactionRepository.findByAccountOrderByTimestampDesc(account)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        // Rows are DTOs, so the persistence context stays empty however long the statement is
+        try (Stream<TransactionResponse> rows = transactionRepository.streamStatement(account.getId(), start, end)) {
+            Iterator<TransactionResponse> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TransactionResponse row = iterator.next();
+                if (format == StatementFormat.CSV) {
+                    writer.write(toCsvLine(row));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
     }
     
     // Helper methods
-    private User getCurrentUser() {
-        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
+    private Long getCurrentUserId() {
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
-        return accountService.findUserByEmail(userDetails.getUsername());
+        return user.getId();
+    }
+    
+    // One projection query for the ownership check and the account id the read needs
+    private AccountView findOwnedAccount(String accountNumber) {
+        AccountView account = ledgerService.findAccountView(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found: " + accountNumber));
+        
+        // Security check
+        if (!account.getOwnerId().equals(getCurrentUserId())) {
+            throw new PermissionDeniedException("You don't have permission to view these transactions");
+        }
+        return account;
     }
     
-    private Account findAccountByNumber(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
+    private Account getLockedAccount(Map<String, Account> accounts, String accountNumber) {
+        Account account = accounts.get(accountNumber);
+        if (account == null) {
+            throw new ResourceNotFoundException("Account not found: " + accountNumber);
+        }
+        return account;
     }
     
-    private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis() + new Random().nextInt(1000);
+    private String toCsvLine(TransactionResponse row) {
+        return String.join(",",
+                csv(row.getTransactionId()),
+                csv(row.getType() != null ? row.getType().name() : null),
+                csv(row.getAmount() != null ? row.getAmount().toPlainString() : null),
+                csv(row.getDescription()),
+                csv(row.getAccountNumber()),
+                csv(row.getDestinationAccount()),
+                csv(row.getTimestamp() != null ? row.getTimestamp().toString() : null)) + "\n";
     }
     
-    private TransactionResponse mapToResponse(Transaction transaction) {
-        return TransactionResponse.builder()
-                .transactionId(transaction.getTransactionId())
-                .type(transaction.getType())
-                .amount(transaction.getAmount())
-                .description(transaction.getDescription())
-                .accountNumber(transaction.getAccount().getAccountNumber())
-                .destinationAccount(transaction.getDestinationAccountNumber())
-                .timestamp(transaction.getTimestamp())
-                .build();
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.bank.repository;
+
+import com.example.bankingapi.model.Transaction;
+import com.example.bankingapi.model.TransactionType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+// Composable search filters over Transaction. Each one maps onto an indexed column (see Transaction's indexes and
+// SearchIndexInitializer) and returns null for a missing argument, so callers can chain them unconditionally.
+public final class TransactionSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+    
+    private TransactionSpecifications() {
+    }
+    
+    public static Specification<Transaction> forAccount(Long accountId) {
+        return accountId == null ? null : (root, query, cb) -> cb.equal(root.get("account").get("id"), accountId);
+    }
+    
+    public static Specification<Transaction> withCounterparty(String accountNumber) {
+        return accountNumber == null ? null : (root, query, cb) -> cb.equal(root.get("destinationAccountNumber"), accountNumber);
+    }
+    
+    public static Specification<Transaction> ofType(TransactionType type) {
+        return type == null ? null : (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+    
+    // Compares the signed amount, debits being negative
+    public static Specification<Transaction> amountAtLeast(BigDecimal amount) {
+        return amount == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), amount);
+    }
+    
+    public static Specification<Transaction> amountAtMost(BigDecimal amount) {
+        return amount == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), amount);
+    }
+    
+    public static Specification<Transaction> onOrAfter(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("timestamp"), from);
+    }
+    
+    public static Specification<Transaction> before(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("timestamp"), to);
+    }
+    
+    // lower(description) LIKE 'text%': the text_pattern_ops expression index on Postgres
+    public static Specification<Transaction> descriptionStartsWith(String text) {
+        return text == null ? null : (root, query, cb) ->
+                cb.like(cb.lower(root.get("description")), escapeLike(text) + "%", LIKE_ESCAPE);
+    }
+    
+    // lower(description) LIKE '%text%': the pg_trgm GIN index on Postgres, which needs at least 3 characters to help
+    public static Specification<Transaction> descriptionContains(String text) {
+        return text == null ? null : (root, query, cb) ->
+                cb.like(cb.lower(root.get("description")), "%" + escapeLike(text) + "%", LIKE_ESCAPE);
+    }
+    
+    // Keyset position for results ordered by timestamp DESC, id DESC
+    public static Specification<Transaction> olderThan(LocalDateTime timestamp, Long id) {
+        return timestamp == null ? null : (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("timestamp"), timestamp),
+                cb.and(cb.equal(root.get("timestamp"), timestamp), cb.lessThan(root.get("id"), id))
+        );
+    }
+    
+    private static String escapeLike(String text) {
+        return text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.example.bank.benchmark;
+
+import com.example.bankingapi.dto.request.TransferRequest;
+import com.example.bankingapi.model.User;
+import com.example.bankingapi.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Transfers per second under each bank.transfer.lock-strategy, with every thread on the same two accounts (hot)
+// or on a pair of its own (cold). Transfers that fail, such as optimistic retries running out, are counted as
+// aborts next to the completed ones, so the abort rate is aborts / (transfers + aborts).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class TransferContentionBenchmark {
+    private static final int MAX_THREADS = 64;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000");
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+    
+    @Param({"pessimistic", "optimistic", "striped"})
+    public String lockStrategy;
+    
+    @Param({"hot", "cold"})
+    public String accounts;
+    
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private User owner;
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final AtomicInteger threadIndexes = new AtomicInteger();
+    
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start(Map.of(
+                "bank.transfer.lock-strategy", lockStrategy,
+                "spring.datasource.hikari.maximum-pool-size", MAX_THREADS));
+        transactionService = context.getBean(TransactionService.class);
+        owner = BenchmarkContext.seedUser(context, "contention");
+        for (int i = 0; i < MAX_THREADS * 2; i++) {
+            accountNumbers.add(BenchmarkContext.seedAccount(context, owner, OPENING_BALANCE).getAccountNumber());
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    // Alternates direction so neither account drains; public fields are reported as extra results
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Worker {
+        public long transfers;
+        public long aborts;
+        
+        private TransferRequest forward;
+        private TransferRequest backward;
+        private boolean reverse;
+        
+        @Setup
+        public void setUp(TransferContentionBenchmark benchmark) {
+            int pair = benchmark.accounts.equals("hot") ? 0 : benchmark.threadIndexes.getAndIncrement() % MAX_THREADS;
+            String first = benchmark.accountNumbers.get(pair * 2);
+            String second = benchmark.accountNumbers.get(pair * 2 + 1);
+            forward = request(first, second);
+            backward = request(second, first);
+            BenchmarkContext.authenticate(benchmark.owner);
+        }
+        
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            transfers = 0;
+            aborts = 0;
+        }
+        
+        private TransferRequest next() {
+            reverse = !reverse;
+            return reverse ? backward : forward;
+        }
+        
+        private static TransferRequest request(String from, String to) {
+            TransferRequest request = new TransferRequest();
+            request.setFromAccountNumber(from);
+            request.setToAccountNumber(to);
+            request.setAmount(AMOUNT);
+            return request;
+        }
+    }
+    
+    @Benchmark
+    public void transfer(Worker worker) {
+        try {
+            transactionService.transfer(worker.next());
+            worker.transfers++;
+        } catch (RuntimeException ex) {
+            worker.aborts++;
+        }
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TransferContentionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
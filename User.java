@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -38,7 +40,13 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
     
+    // Embedded in issued tokens; incrementing it revokes every token issued before
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Account> accounts;
     
     @Override